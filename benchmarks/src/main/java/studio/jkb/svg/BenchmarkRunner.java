@@ -0,0 +1,28 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the benchmarks jar.  Accepts the usual JMH command line and always
+ * adds the GC profiler, so every run reports allocation rate alongside throughput.
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws Exception {
+    Options options = new OptionsBuilder()
+      .parent(new CommandLineOptions(args))
+      .addProfiler(GCProfiler.class)
+      .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import com.google.gson.stream.JsonWriter;
+import heronarts.lx.LX;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export of a single fixture to LXF, split into the stages of PathFixture.exportTo:
+ * taking the snapshot, encoding JSON, and writing the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LxfExportBenchmark {
+
+  @Param({"100", "4096"})
+  public int numPoints;
+
+  @Param({"false", "true"})
+  public boolean compact;
+
+  @Param({"false", "true"})
+  public boolean strips;
+
+  private LX lx;
+  private PathFixture fixture;
+  private PathExport export;
+  private LxfWriter.Options options;
+  private File file;
+
+  @Setup
+  public void setup() throws IOException {
+    this.lx = new LX();
+    this.fixture = new PathFixture(this.lx, SyntheticSvg.pathData(SyntheticSvg.Shape.ZIGZAG, 100, new Random(1)));
+    this.fixture.pointMode.setValue(PathFixture.PointMode.NUMPOINTS);
+    this.fixture.numPoints.setValue(this.numPoints);
+    this.lx.structure.addFixture(this.fixture);
+    this.export = this.fixture.snapshot();
+    this.options = new LxfWriter.Options(this.compact, 3, this.strips);
+    this.file = File.createTempFile("benchmark-", ".lxf");
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.file.delete();
+    this.lx.dispose();
+  }
+
+  @Benchmark
+  public PathExport snapshot() {
+    return this.fixture.snapshot();
+  }
+
+  @Benchmark
+  public void encode() throws IOException {
+    try (JsonWriter writer = new JsonWriter(Writer.nullWriter())) {
+      LxfWriter.writeFixture(writer, this.export, this.options);
+    }
+  }
+
+  @Benchmark
+  public void writeFile() throws IOException {
+    LxfWriter.writeFixtureFile(this.file, this.export, this.options);
+  }
+}
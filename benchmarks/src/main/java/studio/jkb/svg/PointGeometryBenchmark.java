@@ -0,0 +1,80 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.transform.LXMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placement of points along a path.  Spacing applies in SPACING mode and Num Points
+ * in NUMPOINTS mode; use -p to restrict the other parameter when comparing modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointGeometryBenchmark {
+
+  @Param({"10", "1000"})
+  public int numVertices;
+
+  @Param({"NUMPOINTS", "SPACING", "DIRECT"})
+  public PathFixture.PointMode pointMode;
+
+  @Param({"100", "4096"})
+  public int numPoints;
+
+  @Param({"1", "10"})
+  public double spacing;
+
+  private LX lx;
+  private PathFixture fixture;
+  private LXMatrix transform;
+  private List<LXPoint> points;
+
+  @Setup
+  public void setup() {
+    this.lx = new LX();
+    this.fixture = new PathFixture(this.lx, SyntheticSvg.pathData(SyntheticSvg.Shape.RANDOM, this.numVertices, new Random(1)));
+    this.fixture.pointMode.setValue(this.pointMode);
+    this.fixture.numPoints.setValue(this.numPoints);
+    this.fixture.spacing.setValue(this.spacing);
+    this.lx.structure.addFixture(this.fixture);
+    this.transform = new LXMatrix();
+    this.points = this.fixture.getPoints();
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.lx.dispose();
+  }
+
+  @Benchmark
+  public List<LXPoint> computePointGeometry() {
+    this.fixture.computePointGeometry(this.transform, this.points);
+    return this.points;
+  }
+}
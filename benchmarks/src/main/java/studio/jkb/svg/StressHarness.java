@@ -0,0 +1,231 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+import heronarts.lx.parameter.EnumParameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Headless stress run of SvgImport against large synthetic SVG files.
+ *
+ * Builds an LX instance without UI and repeats import, global edit, export and clear
+ * cycles, reporting wall time, peak heap and GC activity for each stage.  Each stage
+ * has a time limit per path; the process exits with status 1 if any stage exceeds it.
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar studio.jkb.svg.StressHarness
+ *   --paths 10000 --vertices 20 --shape RANDOM --cycles 3
+ *   --limit import=200 --limit edit=100 --limit export=500 --limit clear=100
+ *   --max-heap-mb 0
+ * </pre>
+ * Limits are in microseconds per path.  A max heap of 0 disables the heap check.
+ */
+public class StressHarness {
+
+  private enum Stage {
+    IMPORT("import", 200),
+    EDIT("edit", 100),
+    EXPORT("export", 500),
+    CLEAR("clear", 100);
+
+    private final String key;
+    private final double defaultLimit;
+
+    private Stage(String key, double defaultLimit) {
+      this.key = key;
+      this.defaultLimit = defaultLimit;
+    }
+  }
+
+  private record Measurement(long nanos, long peakHeapBytes, long gcCount, long gcMillis) {}
+
+  private int numPaths = 10000;
+  private int numVertices = 20;
+  private SyntheticSvg.Shape shape = SyntheticSvg.Shape.RANDOM;
+  private int numCycles = 3;
+  private long maxHeapBytes = 0;
+  private final Map<Stage, Double> limits = new LinkedHashMap<>();
+
+  private final List<String> failures = new ArrayList<>();
+
+  private StressHarness(String[] args) {
+    for (Stage stage : Stage.values()) {
+      this.limits.put(stage, stage.defaultLimit);
+    }
+    for (int i = 0; i < args.length; i++) {
+      final String arg = args[i];
+      final String value = (i + 1 < args.length) ? args[++i] : "";
+      switch (arg) {
+        case "--paths" -> this.numPaths = Integer.parseInt(value);
+        case "--vertices" -> this.numVertices = Integer.parseInt(value);
+        case "--shape" -> this.shape = SyntheticSvg.Shape.valueOf(value.toUpperCase(Locale.ROOT));
+        case "--cycles" -> this.numCycles = Integer.parseInt(value);
+        case "--max-heap-mb" -> this.maxHeapBytes = Long.parseLong(value) * 1024 * 1024;
+        case "--limit" -> {
+          final String[] parts = value.split("=");
+          final Stage stage = Stage.valueOf(parts[0].toUpperCase(Locale.ROOT));
+          this.limits.put(stage, Double.parseDouble(parts[1]));
+        }
+        default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    final StressHarness harness = new StressHarness(args);
+    final boolean passed = harness.run();
+    System.exit(passed ? 0 : 1);
+  }
+
+  private boolean run() throws Exception {
+    final Path folder = Files.createTempDirectory("svg-import-stress");
+    final File svgFile = folder.resolve("stress.svg").toFile();
+    SyntheticSvg.write(svgFile, SyntheticSvg.paths(this.shape, this.numPaths, this.numVertices, 1));
+    final File exportFolder = Files.createDirectory(folder.resolve("export")).toFile();
+
+    System.out.printf(Locale.ROOT, "Stress run: %d paths x %d vertices (%s), %d cycles%n",
+      this.numPaths, this.numVertices, this.shape, this.numCycles);
+    System.out.printf(Locale.ROOT, "%-6s %-7s %10s %10s %12s %6s %8s%n",
+      "cycle", "stage", "ms", "us/path", "peak heap MB", "gcs", "gc ms");
+
+    final LX lx = new LX();
+    final SvgImport svgImport = new SvgImport(lx);
+    svgImport.clearExistingOnImport.setValue(true);
+    svgImport.exportSkipUnchanged.setValue(false);
+
+    try {
+      for (int cycle = 1; cycle <= this.numCycles; cycle++) {
+        // From the second cycle on, import replaces the previous cycle's fixtures so
+        // clear-on-import is measured as part of import. An explicit clear ends the run.
+        final boolean clearAfter = (cycle == this.numCycles);
+
+        // No engine is running, so import on this thread instead of handing off to it
+        measure(cycle, Stage.IMPORT, () -> svgImport.importSvgSync(svgFile));
+        if (svgImport.numForExport.getValuei() != this.numPaths) {
+          this.failures.add("cycle " + cycle + ": imported " + svgImport.numForExport.getValuei() + " of " + this.numPaths + " paths");
+        }
+
+        final int edit = cycle;
+        measure(cycle, Stage.EDIT, () -> svgImport.transaction(() -> {
+          ((EnumParameter<?>) svgImport.syncPointMode.parameter).setValue(
+            edit % 2 == 0 ? PathFixture.PointMode.SPACING : PathFixture.PointMode.NUMPOINTS);
+          svgImport.syncNumPoints.parameter.setValue(50 + edit);
+          svgImport.syncSpacing.parameter.setValue(1 + edit * .1);
+          svgImport.syncPadStart.parameter.setValue(edit * .1);
+        }));
+
+        measure(cycle, Stage.EXPORT, () -> {
+          final List<PathExport> exports = svgImport.snapshotActive();
+          new ExportJob(svgImport, exportFolder, "stress", exports, new ExportJob.Listener() {
+            @Override
+            public void onExportProgress(int numCompleted, int numFiles) {}
+
+            @Override
+            public void onExportFinished() {}
+          }).run();
+        });
+
+        if (clearAfter) {
+          measure(cycle, Stage.CLEAR, svgImport::clearFixtures);
+          if (svgImport.numForExport.getValuei() != 0) {
+            this.failures.add("cycle " + cycle + ": " + svgImport.numForExport.getValuei() + " fixtures remain after clear");
+          }
+        }
+      }
+    } finally {
+      svgImport.dispose();
+      lx.dispose();
+      deleteRecursively(folder);
+    }
+
+    if (this.failures.isEmpty()) {
+      System.out.println("PASSED");
+      return true;
+    }
+    System.out.println("FAILED");
+    for (String failure : this.failures) {
+      System.out.println("  " + failure);
+    }
+    return false;
+  }
+
+  private void measure(int cycle, Stage stage, Runnable work) {
+    final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP) {
+        pool.resetPeakUsage();
+        heapPools.add(pool);
+      }
+    }
+    final long gcCount = gcCount();
+    final long gcMillis = gcMillis();
+
+    final long start = System.nanoTime();
+    work.run();
+    final long nanos = System.nanoTime() - start;
+
+    long peakHeap = 0;
+    for (MemoryPoolMXBean pool : heapPools) {
+      peakHeap += pool.getPeakUsage().getUsed();
+    }
+    report(cycle, stage, new Measurement(nanos, peakHeap, gcCount() - gcCount, gcMillis() - gcMillis));
+  }
+
+  private void report(int cycle, Stage stage, Measurement m) {
+    final double usPerPath = m.nanos / 1000. / this.numPaths;
+    System.out.printf(Locale.ROOT, "%-6d %-7s %10.1f %10.2f %12.1f %6d %8d%n",
+      cycle, stage.key, m.nanos / 1e6, usPerPath, m.peakHeapBytes / (1024. * 1024.), m.gcCount, m.gcMillis);
+
+    // The first cycle includes JIT warmup and is reported but not checked
+    final double limit = this.limits.get(stage);
+    if (cycle > 1 && limit > 0 && usPerPath > limit) {
+      this.failures.add(String.format(Locale.ROOT, "cycle %d %s: %.2f us/path exceeds limit of %.2f", cycle, stage.key, usPerPath, limit));
+    }
+    if (this.maxHeapBytes > 0 && m.peakHeapBytes > this.maxHeapBytes) {
+      this.failures.add(String.format(Locale.ROOT, "cycle %d %s: peak heap %d MB exceeds limit of %d MB",
+        cycle, stage.key, m.peakHeapBytes / (1024 * 1024), this.maxHeapBytes / (1024 * 1024)));
+    }
+  }
+
+  private static long gcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, gc.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long gcMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(0, gc.getCollectionTime());
+    }
+    return millis;
+  }
+
+  private static void deleteRecursively(Path folder) throws IOException {
+    try (Stream<Path> paths = Files.walk(folder)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading path elements from SVG files
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SvgLoadBenchmark {
+
+  @Param({"100", "1000", "10000"})
+  public int numPaths;
+
+  @Param({"10", "100"})
+  public int numVertices;
+
+  private File file;
+
+  @Setup
+  public void setup() throws Exception {
+    this.file = SyntheticSvg.writeTemp(SyntheticSvg.Shape.RANDOM, this.numPaths, this.numVertices, 1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    this.file.delete();
+  }
+
+  @Benchmark
+  public List<String> loadSVGpaths() throws Exception {
+    return SvgUtils.loadSVGpaths(this.file);
+  }
+}
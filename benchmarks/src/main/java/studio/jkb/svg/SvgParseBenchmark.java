@@ -0,0 +1,53 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.geom.Path2D;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of SVG path data into Path2D
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SvgParseBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int numVertices;
+
+  @Param({"LINE", "RANDOM"})
+  public SyntheticSvg.Shape shape;
+
+  private String pathData;
+
+  @Setup
+  public void setup() {
+    this.pathData = SyntheticSvg.pathData(this.shape, this.numVertices, new Random(1));
+  }
+
+  @Benchmark
+  public Path2D parseSVGPath() {
+    return SvgUtils.parseSVGPath(this.pathData);
+  }
+}
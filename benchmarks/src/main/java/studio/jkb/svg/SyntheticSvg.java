@@ -0,0 +1,112 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates SVG path data and files of a given size and shape, for benchmarks and
+ * stress runs.  Output is deterministic for a given seed.
+ */
+public class SyntheticSvg {
+
+  public enum Shape {
+    /**
+     * Straight line of evenly spaced vertices
+     */
+    LINE,
+
+    /**
+     * Alternating up and down segments
+     */
+    ZIGZAG,
+
+    /**
+     * Random walk with varying segment length and direction
+     */
+    RANDOM
+  }
+
+  /**
+   * Length of each segment, in path units
+   */
+  private static final double SEGMENT_LENGTH = 10;
+
+  /**
+   * Path data for a single open path with the given number of vertices
+   */
+  public static String pathData(Shape shape, int numVertices, Random random) {
+    final StringBuilder pathData = new StringBuilder(numVertices * 16);
+    double x = random.nextDouble() * 1000;
+    double y = random.nextDouble() * 1000;
+    double angle = random.nextDouble() * Math.PI * 2;
+    for (int v = 0; v < numVertices; v++) {
+      pathData
+        .append(v == 0 ? "M" : " L")
+        .append(String.format(Locale.ROOT, "%.3f,%.3f", x, y));
+      switch (shape) {
+        case LINE -> {
+          x += SEGMENT_LENGTH;
+        }
+        case ZIGZAG -> {
+          x += SEGMENT_LENGTH;
+          y += (v % 2 == 0) ? SEGMENT_LENGTH : -SEGMENT_LENGTH;
+        }
+        case RANDOM -> {
+          angle += (random.nextDouble() - .5) * Math.PI / 2;
+          final double length = SEGMENT_LENGTH * (.5 + random.nextDouble());
+          x += Math.cos(angle) * length;
+          y += Math.sin(angle) * length;
+        }
+      }
+    }
+    return pathData.toString();
+  }
+
+  public static List<String> paths(Shape shape, int numPaths, int numVertices, long seed) {
+    final Random random = new Random(seed);
+    final List<String> paths = new ArrayList<>(numPaths);
+    for (int i = 0; i < numPaths; i++) {
+      paths.add(pathData(shape, numVertices, random));
+    }
+    return paths;
+  }
+
+  /**
+   * Write an SVG document containing one path element per path
+   */
+  public static void write(File file, List<String> paths) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+      writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+      writer.write("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\">\n");
+      for (String path : paths) {
+        writer.write("  <path d=\"");
+        writer.write(path);
+        writer.write("\" fill=\"none\" stroke=\"black\"/>\n");
+      }
+      writer.write("</svg>\n");
+    }
+  }
+
+  /**
+   * Write a synthetic SVG to a temporary file that is deleted on exit
+   */
+  public static File writeTemp(Shape shape, int numPaths, int numVertices, long seed) throws IOException {
+    final File file = File.createTempFile("synthetic-" + numPaths + "x" + numVertices + "-", ".svg");
+    file.deleteOnExit();
+    write(file, paths(shape, numPaths, numVertices, seed));
+    return file;
+  }
+}
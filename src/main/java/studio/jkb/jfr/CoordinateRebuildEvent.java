@@ -0,0 +1,29 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Converting a parsed path into scaled coordinates
+ */
+@Name("studio.jkb.svg.CoordinateRebuild")
+@Label("Coordinate Rebuild")
+@Category({"Chromatik", "SVG Import"})
+@Description("Converting a parsed path into scaled coordinates")
+public class CoordinateRebuildEvent extends Event {
+
+  @Label("Fixture")
+  public String fixture;
+
+  @Label("Vertices")
+  public int numVertices;
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing an LXF, point cloud or export manifest file
+ */
+@Name("studio.jkb.svg.LxfExport")
+@Label("LXF Export")
+@Category({"Chromatik", "SVG Import"})
+@Description("Writing an LXF, point cloud or export manifest file")
+public class LxfExportEvent extends Event {
+
+  @Label("File")
+  public String file;
+
+  @Label("Fixture")
+  public String fixture;
+
+  @Label("Points")
+  public int numPoints;
+
+  @Label("Bytes Written")
+  @DataAmount
+  public long bytesWritten;
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Parsing SVG path data into a Path2D.  Parsing may run before the fixture exists,
+ * on an import worker thread.
+ */
+@Name("studio.jkb.svg.PathParse")
+@Label("Path Parse")
+@Category({"Chromatik", "SVG Import"})
+@Description("Parsing SVG path data into a Path2D")
+public class PathParseEvent extends Event {
+
+  @Label("Path Data Length")
+  @Description("Length of the SVG path data string, in characters")
+  public int pathDataLength;
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Placing points along a path in computePointGeometry
+ */
+@Name("studio.jkb.svg.PointGeometry")
+@Label("Point Geometry")
+@Category({"Chromatik", "SVG Import"})
+@Description("Placing points along a path in computePointGeometry")
+public class PointGeometryEvent extends Event {
+
+  @Label("Fixture")
+  public String fixture;
+
+  @Label("Point Mode")
+  public String pointMode;
+
+  @Label("Vertices")
+  public int numVertices;
+
+  @Label("Points")
+  public int numPoints;
+}
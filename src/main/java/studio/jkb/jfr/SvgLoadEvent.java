@@ -0,0 +1,30 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Reading path elements from an SVG file
+ */
+@Name("studio.jkb.svg.SvgLoad")
+@Label("SVG Load")
+@Category({"Chromatik", "SVG Import"})
+@Description("Reading path elements from an SVG file")
+public class SvgLoadEvent extends Event {
+
+  @Label("File")
+  public String file;
+
+  @Label("Paths")
+  @Description("Number of path elements found")
+  public int numPaths;
+}
@@ -0,0 +1,30 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Pushing a global parameter value to the matching parameter of every path fixture
+ */
+@Name("studio.jkb.svg.SyncPropagation")
+@Label("Sync Propagation")
+@Category({"Chromatik", "SVG Import"})
+@Description("Pushing a global parameter value to the matching parameter of every path fixture")
+public class SyncPropagationEvent extends Event {
+
+  @Label("Parameter")
+  public String parameter;
+
+  @Label("Fixtures")
+  @Description("Number of child parameters updated")
+  public int numChildren;
+}
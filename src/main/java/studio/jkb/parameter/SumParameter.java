@@ -4,19 +4,32 @@ import heronarts.lx.parameter.LXListenableParameter;
 import heronarts.lx.parameter.LXParameterListener;
 import heronarts.lx.parameter.MutableParameter;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * Performs a summary operation on all child parameter values.
  * Could generalize this to [perform function] on child parameters.
+ *
+ * The aggregate is maintained incrementally by applying the change in each child value,
+ * with a full recompute every RECOMPUTE_INTERVAL changes to guard against floating point drift.
  */
 public class SumParameter extends MutableParameter {
 
-  private final List<LXListenableParameter> mutableParameters = new ArrayList<>();
-  protected final List<LXListenableParameter> parameters = Collections.unmodifiableList(this.mutableParameters);
+  private static final int RECOMPUTE_INTERVAL = 1000;
+
+  /**
+   * Child parameters in insertion order, mapped to the last known value of each child
+   * which is used to compute the delta when a child changes
+   */
+  private final Map<LXListenableParameter, Double> childValues = new LinkedHashMap<>();
+  protected final Collection<LXListenableParameter> parameters = Collections.unmodifiableSet(this.childValues.keySet());
+
+  private double aggregate = 0;
+  private int numDeltas = 0;
 
   public SumParameter(String label) {
     super(label);
@@ -29,40 +42,68 @@ public class SumParameter extends MutableParameter {
   }
 
   public SumParameter addChildParameter(LXListenableParameter parameter) {
-    if (this.mutableParameters.contains(Objects.requireNonNull(parameter))) {
+    final double value = Objects.requireNonNull(parameter).getValue();
+    if (this.childValues.putIfAbsent(parameter, value) != null) {
       throw new IllegalArgumentException("Child parameter already exists in collection: " + parameter);
     }
-    this.mutableParameters.add(parameter);
     parameter.addListener(this.childChanged);
-    refresh();
+    applyDelta(0, value);
     return this;
   }
 
   public boolean hasChildParameter(LXListenableParameter parameter) {
-    return this.parameters.contains(parameter);
+    return this.childValues.containsKey(parameter);
   }
 
   public boolean removeChildParameter(LXListenableParameter parameter) {
-    if (this.mutableParameters.remove(Objects.requireNonNull(parameter))) {
+    final Double previous = this.childValues.remove(Objects.requireNonNull(parameter));
+    if (previous != null) {
       parameter.removeListener(this.childChanged);
-      refresh();
+      applyDelta(previous, 0);
       return true;
     }
     return false;
   }
 
   private LXParameterListener childChanged = (p) -> {
-    refresh();
+    final double value = p.getValue();
+    final Double previous = this.childValues.replace((LXListenableParameter) p, value);
+    applyDelta(previous != null ? previous : 0, value);
   };
 
+  private void applyDelta(double oldValue, double newValue) {
+    if (++this.numDeltas >= RECOMPUTE_INTERVAL) {
+      refresh();
+    } else {
+      this.aggregate = computeDelta(this.aggregate, oldValue, newValue);
+      setValue(this.aggregate);
+    }
+  }
+
+  /**
+   * Recompute the aggregate from all child values
+   */
   private void refresh() {
-    setValue(computeGroup(this.parameters));
+    this.numDeltas = 0;
+    for (Map.Entry<LXListenableParameter, Double> entry : this.childValues.entrySet()) {
+      entry.setValue(entry.getKey().getValue());
+    }
+    this.aggregate = computeGroup(this.parameters);
+    setValue(this.aggregate);
+  }
+
+  /**
+   * Update the summary value when one child changes from oldValue to newValue.
+   * Must be consistent with computeGroup().
+   */
+  protected double computeDelta(double aggregate, double oldValue, double newValue) {
+    return aggregate - oldValue + newValue;
   }
 
   /**
    * Perform a summary operation on the collection, such as sum/min/max.
    */
-  protected double computeGroup(List<LXListenableParameter> parameters) {
+  protected double computeGroup(Collection<LXListenableParameter> parameters) {
     double value = 0;
     for (LXListenableParameter child : parameters) {
       value += child.getValue();
@@ -77,8 +118,8 @@ public class SumParameter extends MutableParameter {
 
   @Override
   public void dispose() {
-    for (int i = this.mutableParameters.size() - 1; i >= 0; i--) {
-      removeChildParameter(this.mutableParameters.get(i));
+    for (LXListenableParameter child : this.parameters.toArray(new LXListenableParameter[0])) {
+      removeChildParameter(child);
     }
     super.dispose();
   }
@@ -11,15 +11,19 @@ import heronarts.lx.LXComponent;
 import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.LXListenableNormalizedParameter;
 import heronarts.lx.parameter.LXParameterListener;
+import studio.jkb.jfr.SyncPropagationEvent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A "group" proxy parameter. When enabled and the internal parameter value is changed, the new
  * value is propagated to all child parameters.  If a child parameter is changed by the user,
  * the Enabled value becomes False to indicate an out-of-sync state.
+ *
+ * Multiple changes can be grouped with beginTransaction() / commitTransaction().  While a
+ * transaction is open, changes are held and pushed to the children once on commit.
  */
 public class SyncParameter extends LXComponent {
 
@@ -29,7 +33,7 @@ public class SyncParameter extends LXComponent {
 
   public final LXListenableNormalizedParameter parameter;
 
-  private final List<LXListenableNormalizedParameter> childParams = new ArrayList<>();
+  private final Set<LXListenableNormalizedParameter> childParams = new LinkedHashSet<>();
 
   /**
    * Constructor
@@ -47,10 +51,9 @@ public class SyncParameter extends LXComponent {
   }
 
   public SyncParameter addChildParameter(LXListenableNormalizedParameter child) {
-    if (this.childParams.contains(Objects.requireNonNull(child))) {
+    if (!this.childParams.add(Objects.requireNonNull(child))) {
       throw new IllegalArgumentException("Child parameter already exists in collection: " + child);
     }
-    this.childParams.add(child);
     if (this.enabled.isOn()) {
       child.setNormalized(this.parameter.getNormalized());
     }
@@ -68,9 +71,47 @@ public class SyncParameter extends LXComponent {
 
   private boolean isUs;
 
+  private int transactionDepth = 0;
+  private boolean pendingPush = false;
+
+  /**
+   * Hold changes to the internal parameter until commitTransaction().  Calls may be nested.
+   */
+  public SyncParameter beginTransaction() {
+    ++this.transactionDepth;
+    return this;
+  }
+
+  /**
+   * Close a transaction.  When the outermost transaction is committed, any pending
+   * value is pushed to the children if sync is enabled.
+   */
+  public SyncParameter commitTransaction() {
+    if (this.transactionDepth == 0) {
+      throw new IllegalStateException("No transaction in progress on SyncParameter: " + this.parameter.getLabel());
+    }
+    if (--this.transactionDepth == 0 && this.pendingPush) {
+      this.pendingPush = false;
+      if (this.enabled.isOn()) {
+        this.isUs = true;
+        pushToChildren();
+        this.isUs = false;
+      }
+    }
+    return this;
+  }
+
+  public boolean inTransaction() {
+    return this.transactionDepth > 0;
+  }
+
   private LXParameterListener enabledChanged = (p) -> {
     if (!this.isUs && this.enabled.isOn()) {
       // Sync was turned on. Push internal value to children.
+      if (inTransaction()) {
+        this.pendingPush = true;
+        return;
+      }
       this.isUs = true;
       pushToChildren();
       this.isUs = false;
@@ -80,6 +121,10 @@ public class SyncParameter extends LXComponent {
   private LXParameterListener internalChanged = (p) -> {
     // If parameter was modified and sync is turned on, push to child params
     if (!this.isUs && this.enabled.isOn()) {
+      if (inTransaction()) {
+        this.pendingPush = true;
+        return;
+      }
       this.isUs = true;
       pushToChildren();
       this.isUs = false;
@@ -87,10 +132,18 @@ public class SyncParameter extends LXComponent {
   };
 
   private void pushToChildren() {
+    final SyncPropagationEvent event = new SyncPropagationEvent();
+    event.begin();
     double normalized = this.parameter.getNormalized();
     for (LXListenableNormalizedParameter child : this.childParams) {
       child.setNormalized(normalized);
     }
+    event.end();
+    if (event.shouldCommit()) {
+      event.parameter = this.parameter.getLabel();
+      event.numChildren = this.childParams.size();
+      event.commit();
+    }
   }
 
   private LXParameterListener childChanged = (p) -> {
@@ -104,8 +157,7 @@ public class SyncParameter extends LXComponent {
 
   @Override
   public void dispose() {
-    for (int i = this.childParams.size() - 1; i >= 0; i--) {
-      LXListenableNormalizedParameter child = this.childParams.get(i);
+    for (LXListenableNormalizedParameter child : this.childParams.toArray(new LXListenableNormalizedParameter[0])) {
       removeChildParameter(child);
     }
     this.parameter.removeListener(this.internalChanged);
@@ -29,6 +29,16 @@ public interface JsonKeys {
   public static final String KEY_TAGS = "tags";
   public static final String KEY_METADATA = "metadata";
   public static final String KEY_COMPONENTS = "components";
+  public static final String KEY_TYPE = "type";
+  public static final String KEY_STRIP = "strip";
+  public static final String KEY_NUM_POINTS = "numPoints";
+  public static final String KEY_SPACING = "spacing";
+  public static final String KEY_X = "x";
+  public static final String KEY_Y = "y";
+  public static final String KEY_Z = "z";
+  public static final String KEY_YAW = "yaw";
+  public static final String KEY_PITCH = "pitch";
+  public static final String KEY_ROLL = "roll";
   public static final String KEY_POINTS = "points";
   public static final String KEY_COORDINATES = "coords";
   public static final String KEY_OUTPUTS = "outputs";
@@ -48,4 +58,6 @@ public interface JsonKeys {
   public static final String KEY_SEQUENCE_ENABLED = "sequenceEnabled";
   public static final String KEY_OFFSET = "offset";
   public static final String KEY_REVERSE = "reverse";
+  public static final String KEY_START = "start";
+  public static final String KEY_NUM = "num";
 }
@@ -0,0 +1,248 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One run of Export All.  Created on the engine thread from snapshots of the path
+ * fixtures and the export settings, then run on a worker thread so neither the UI
+ * nor the engine waits on file writes.  Edits made while the job runs do not affect
+ * its output.
+ */
+public class ExportJob implements Runnable {
+
+  public interface Listener {
+    /**
+     * Called from the export threads each time a file is completed
+     */
+    void onExportProgress(int numCompleted, int numFiles);
+
+    /**
+     * Called from the export thread once all files have been written
+     */
+    void onExportFinished();
+  }
+
+  /**
+   * Maximum number of fixture files written concurrently
+   */
+  private static final int MAX_EXPORT_THREADS = 8;
+
+  private final File folder;
+  private final String exportName;
+  private final List<PathExport> exports;
+  private final LxfWriter.Options options;
+  private final boolean singleFile;
+  private final boolean parentFixture;
+  private final boolean skipUnchanged;
+  private final boolean removeStale;
+  private final Listener listener;
+
+  private final File manifestFile;
+  private final int numFiles;
+  private final AtomicInteger numCompleted = new AtomicInteger(0);
+
+  ExportJob(SvgImport svgImport, File folder, String exportName, List<PathExport> exports, Listener listener) {
+    this.folder = folder;
+    this.exportName = exportName;
+    this.exports = List.copyOf(exports);
+    this.options = svgImport.getExportOptions();
+    this.singleFile = svgImport.exportSingleFile.isOn();
+    this.parentFixture = svgImport.exportParentFixture.isOn();
+    this.skipUnchanged = svgImport.exportSkipUnchanged.isOn();
+    this.removeStale = svgImport.exportRemoveStale.isOn();
+    this.listener = listener;
+
+    this.manifestFile = ExportManifest.getFile(folder, exportName);
+    this.numFiles = this.singleFile ? 1 : this.exports.size() + (this.parentFixture ? 1 : 0);
+  }
+
+  /**
+   * Number of files this job will write or skip as unchanged
+   */
+  public int getNumFiles() {
+    return this.numFiles;
+  }
+
+  @Override
+  public void run() {
+    try {
+      final ExportManifest previous = ExportManifest.load(this.manifestFile);
+      if (this.singleFile) {
+        exportSingleFile(previous);
+      } else {
+        exportFiles(previous);
+      }
+    } finally {
+      this.listener.onExportFinished();
+    }
+  }
+
+  private void completed() {
+    this.listener.onExportProgress(this.numCompleted.incrementAndGet(), this.numFiles);
+  }
+
+  /**
+   * Write one file per fixture, plus an optional parent fixture that references them
+   */
+  private void exportFiles(ExportManifest previous) {
+    final ExportManifest manifest = new ExportManifest();
+    final int numThreads = Math.min(this.exports.size(), Math.min(MAX_EXPORT_THREADS, Runtime.getRuntime().availableProcessors()));
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+      Thread thread = new Thread(runnable, "SVG Import Export");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    // Export each child fixture whose content changed since the last export
+    List<Future<String>> futures = new ArrayList<>();
+    for (PathExport export : this.exports) {
+      futures.add(executor.submit(() -> {
+        try {
+          final File file = new File(this.folder, export.label + ".lxf");
+          final String hash = export.contentHash(this.options);
+          if (!this.skipUnchanged || !previous.isUnchanged(file, hash)) {
+            LxfWriter.writeFixtureFile(file, export, this.options);
+          }
+          return hash;
+        } finally {
+          completed();
+        }
+      }));
+    }
+    executor.shutdown();
+
+    Set<String> fileNames = new HashSet<>();
+    List<String> childFixtureNames = new ArrayList<>();
+    List<String> failures = new ArrayList<>();
+    for (int i = 0; i < this.exports.size(); i++) {
+      String childName = this.exports.get(i).label;
+      fileNames.add(childName + ".lxf");
+      try {
+        manifest.put(childName + ".lxf", futures.get(i).get());
+        childFixtureNames.add(childName);
+      } catch (ExecutionException x) {
+        failures.add(childName + ": " + x.getCause().getMessage());
+      } catch (InterruptedException x) {
+        Thread.currentThread().interrupt();
+        failures.add(childName + ": interrupted");
+      }
+    }
+
+    // Export the parent fixture
+    if (this.parentFixture) {
+      if (childFixtureNames.size() > 0) {
+        final File file = new File(this.folder, this.exportName + ".lxf");
+        final String hash = ExportManifest.hash(out -> {
+          for (String childName : childFixtureNames) {
+            out.writeUTF(childName);
+          }
+        });
+        fileNames.add(file.getName());
+        try {
+          if (!this.skipUnchanged || !previous.isUnchanged(file, hash)) {
+            LxfWriter.writeParentFile(file, this.exportName, childFixtureNames);
+          }
+          manifest.put(file.getName(), hash);
+        } catch (IOException iox) {
+          failures.add(this.exportName + ": " + iox.getMessage());
+        }
+      }
+      completed();
+    }
+
+    final int numRemoved = removeStale(previous, fileNames, failures);
+    saveManifest(manifest);
+
+    if (failures.isEmpty()) {
+      LX.log("Exported " + childFixtureNames.size() + " fixtures to " + this.folder +
+        (numRemoved > 0 ? ", removed " + numRemoved + " stale files" : ""));
+    } else {
+      LX.error("Export All wrote " + childFixtureNames.size() + " of " + this.exports.size() +
+        " fixtures. Failed:\n" + String.join("\n", failures));
+    }
+  }
+
+  /**
+   * Write all fixtures inline to one LXF file named after the export
+   */
+  private void exportSingleFile(ExportManifest previous) {
+    final File file = new File(this.folder, this.exportName + ".lxf");
+    final String hash = ExportManifest.hash(out -> {
+      for (PathExport export : this.exports) {
+        out.writeUTF(export.contentHash(this.options));
+      }
+    });
+
+    final ExportManifest manifest = new ExportManifest();
+    final List<String> failures = new ArrayList<>();
+    try {
+      if (!this.skipUnchanged || !previous.isUnchanged(file, hash)) {
+        LxfWriter.writeCombinedFile(file, this.exportName, this.exports, this.options);
+      }
+    } catch (IOException iox) {
+      LX.error(iox, "Exception writing fixture file to " + file);
+      return;
+    } finally {
+      completed();
+    }
+    manifest.put(file.getName(), hash);
+
+    final int numRemoved = removeStale(previous, Set.of(file.getName()), failures);
+    saveManifest(manifest);
+
+    if (failures.isEmpty()) {
+      LX.log("Exported " + this.exports.size() + " fixtures to " + file +
+        (numRemoved > 0 ? ", removed " + numRemoved + " stale files" : ""));
+    } else {
+      LX.error("Export All wrote " + file + " but could not remove stale files:\n" + String.join("\n", failures));
+    }
+  }
+
+  /**
+   * Remove files from the previous export that are not part of this one, if enabled
+   *
+   * @return Number of files removed
+   */
+  private int removeStale(ExportManifest previous, Set<String> fileNames, List<String> failures) {
+    int numRemoved = 0;
+    if (this.removeStale) {
+      for (String staleName : previous.getFileNames()) {
+        if (!fileNames.contains(staleName)) {
+          File stale = new File(this.folder, staleName);
+          if (stale.delete()) {
+            ++numRemoved;
+          } else if (stale.exists()) {
+            failures.add(staleName + ": could not remove stale file");
+          }
+        }
+      }
+    }
+    return numRemoved;
+  }
+
+  private void saveManifest(ExportManifest manifest) {
+    try {
+      manifest.save(this.manifestFile);
+    } catch (IOException iox) {
+      LX.error(iox, "Exception writing export manifest to " + this.manifestFile);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import heronarts.lx.LX;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Record of the content hash of each LXF file written by one Export All, used to skip
+ * rewriting files whose content has not changed and to find files left behind by
+ * fixtures that no longer exist.  Stored as a hidden JSON file in the Fixtures folder.
+ */
+public class ExportManifest {
+
+  private static final String KEY_VERSION = "version";
+  private static final String KEY_FILES = "files";
+  private static final int VERSION = 1;
+
+  public interface HashBody {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  private final Map<String, String> files = new LinkedHashMap<>();
+
+  /**
+   * SHA-256 of the values written by the body, as a hex string
+   */
+  public static String hash(HashBody body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest)))) {
+        body.write(out);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException | IOException x) {
+      throw new IllegalStateException("Could not hash export content", x);
+    }
+  }
+
+  /**
+   * Manifest file for an export set, stored alongside the exported fixtures
+   */
+  public static File getFile(File folder, String exportName) {
+    return new File(folder, "." + exportName + ".svgimport.json");
+  }
+
+  /**
+   * Load a manifest.  A missing or unreadable manifest is treated as empty, which
+   * means every file will be written.
+   */
+  public static ExportManifest load(File file) {
+    ExportManifest manifest = new ExportManifest();
+    if (!file.exists()) {
+      return manifest;
+    }
+    try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+      JsonObject obj = JsonParser.parseReader(reader).getAsJsonObject();
+      if (obj.has(KEY_VERSION) && obj.get(KEY_VERSION).getAsInt() == VERSION && obj.has(KEY_FILES)) {
+        for (Map.Entry<String, JsonElement> entry : obj.getAsJsonObject(KEY_FILES).entrySet()) {
+          manifest.files.put(entry.getKey(), entry.getValue().getAsString());
+        }
+      }
+    } catch (Exception x) {
+      LX.warning("Ignoring unreadable export manifest " + file + ": " + x.getMessage());
+      manifest.files.clear();
+    }
+    return manifest;
+  }
+
+  public void save(File file) throws IOException {
+    LxfWriter.writeFile(file, writer -> {
+      writer.beginObject();
+      writer.name(KEY_VERSION).value(VERSION);
+      writer.name(KEY_FILES).beginObject();
+      for (Map.Entry<String, String> entry : this.files.entrySet()) {
+        writer.name(entry.getKey()).value(entry.getValue());
+      }
+      writer.endObject();
+      writer.endObject();
+    });
+  }
+
+  /**
+   * Whether a file was last exported with the given content hash and still exists
+   */
+  public boolean isUnchanged(File file, String hash) {
+    return hash.equals(this.files.get(file.getName())) && file.exists();
+  }
+
+  public void put(String fileName, String hash) {
+    this.files.put(fileName, hash);
+  }
+
+  public Set<String> getFileNames() {
+    return Collections.unmodifiableSet(this.files.keySet());
+  }
+}
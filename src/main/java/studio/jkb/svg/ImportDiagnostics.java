@@ -0,0 +1,83 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import com.google.gson.JsonObject;
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
+import heronarts.lx.parameter.MutableParameter;
+
+import java.util.List;
+
+/**
+ * Timings for each stage of importing and editing path fixtures, with counts from
+ * the most recent import.  Each import records one sample per stage, totalled over
+ * all of its paths.
+ */
+public class ImportDiagnostics extends LXComponent {
+
+  public final StageTimer xmlRead;
+  public final StageTimer stitch;
+  public final StageTimer parse;
+  public final StageTimer rebuild;
+  public final StageTimer structure;
+  public final StageTimer regeneration;
+  public final StageTimer sync;
+
+  public final List<StageTimer> timers;
+
+  public final MutableParameter numPaths =
+    new MutableParameter("Paths", 0)
+      .setDescription("Number of fixtures created by the most recent import, read-only");
+
+  public final MutableParameter numVertices =
+    new MutableParameter("Vertices", 0)
+      .setDescription("Number of path vertices in the most recent import, read-only");
+
+  public final MutableParameter numPoints =
+    new MutableParameter("Points", 0)
+      .setDescription("Number of points generated by the most recent import, read-only");
+
+  public ImportDiagnostics(LX lx) {
+    super(lx, "Diagnostics");
+    addChild("xmlRead", this.xmlRead = new StageTimer(lx, "XML Read"));
+    addChild("stitch", this.stitch = new StageTimer(lx, "Stitch"));
+    addChild("parse", this.parse = new StageTimer(lx, "Parse"));
+    addChild("rebuild", this.rebuild = new StageTimer(lx, "Rebuild Coordinates"));
+    addChild("structure", this.structure = new StageTimer(lx, "Structure"));
+    addChild("regeneration", this.regeneration = new StageTimer(lx, "Regeneration"));
+    addChild("sync", this.sync = new StageTimer(lx, "Sync"));
+    this.timers = List.of(
+      this.xmlRead,
+      this.stitch,
+      this.parse,
+      this.rebuild,
+      this.structure,
+      this.regeneration,
+      this.sync
+    );
+
+    addParameter("numPaths", this.numPaths);
+    addParameter("numVertices", this.numVertices);
+    addParameter("numPoints", this.numPoints);
+  }
+
+  @Override
+  public void load(LX lx, JsonObject obj) {
+    super.load(lx, obj);
+    // Counts are from an earlier session, timers clear themselves when loaded
+    this.numPaths.setValue(0);
+    this.numVertices.setValue(0);
+    this.numPoints.setValue(0);
+  }
+
+  public void reset() {
+    for (StageTimer timer : this.timers) {
+      timer.reset();
+    }
+  }
+}
@@ -0,0 +1,520 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import com.google.gson.stream.JsonWriter;
+import heronarts.lx.structure.LXBasicFixture.Protocol;
+import studio.jkb.jfr.LxfExportEvent;
+import studio.jkb.structure.JsonKeys;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes LXF fixture files, token by token, from export snapshots.
+ *
+ * Files are written to a temporary file in the target folder and then renamed over
+ * the target, so an interrupted export never leaves a truncated LXF behind.
+ */
+public class LxfWriter implements JsonKeys {
+
+  public interface Body {
+    void write(JsonWriter writer) throws IOException;
+  }
+
+  /**
+   * Encoding options for fixture files
+   */
+  public static class Options {
+
+    public static final Options DEFAULT = new Options(false, 0, false);
+
+    /**
+     * Round coordinates, leave out zero and default values, and skip indentation
+     */
+    public final boolean compact;
+
+    /**
+     * Decimal places for coordinates, when compact
+     */
+    public final int precision;
+
+    /**
+     * Write straight, evenly spaced runs of points as strip components
+     */
+    public final boolean strips;
+
+    private final double scale;
+
+    public Options(boolean compact, int precision, boolean strips) {
+      this.compact = compact;
+      this.precision = precision;
+      this.strips = strips;
+      this.scale = Math.pow(10, precision);
+    }
+
+    private String getIndent() {
+      return this.compact ? "" : "  ";
+    }
+
+    private double round(double value) {
+      return Math.round(value * this.scale) / this.scale;
+    }
+  }
+
+  private static final String DEFAULT_BYTE_ORDER = "RGB";
+
+  private static final String GENERATOR = "Chromatik, SVG Import Plugin, Version " + SvgImportPlugin.VERSION;
+
+  /**
+   * Write a JSON file atomically: the body is written to a temporary file in the same
+   * folder, which then replaces the target.
+   */
+  public static void writeFile(File file, Body body) throws IOException {
+    writeFile(file, Options.DEFAULT.getIndent(), null, 0, body);
+  }
+
+  /**
+   * @param fixture Label of the fixture being written, for the flight recorder event
+   * @param numPoints Number of points being written, for the flight recorder event
+   */
+  private static void writeFile(File file, String indent, String fixture, int numPoints, Body body) throws IOException {
+    final LxfExportEvent event = new LxfExportEvent();
+    event.begin();
+    final Path target = file.toPath().toAbsolutePath();
+    final Path temp = Files.createTempFile(target.getParent(), "." + file.getName() + ".", ".tmp");
+    try {
+      try (JsonWriter writer = new JsonWriter(Files.newBufferedWriter(temp, StandardCharsets.UTF_8))) {
+        writer.setIndent(indent);
+        body.write(writer);
+      }
+      final long bytesWritten = event.isEnabled() ? Files.size(temp) : 0;
+      replace(temp, target);
+      event.end();
+      if (event.shouldCommit()) {
+        event.file = target.toString();
+        event.fixture = fixture;
+        event.numPoints = numPoints;
+        event.bytesWritten = bytesWritten;
+        event.commit();
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Move a completed temporary file over its target, atomically where supported
+   */
+  static void replace(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException amnsx) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  public static void writeFixtureFile(File file, PathExport export, Options options) throws IOException {
+    writeFile(file, options.getIndent(), export.label, export.numPoints(), writer -> writeFixture(writer, export, options));
+  }
+
+  public static void writeParentFile(File file, String fixtureName, List<String> childFixtureNames) throws IOException {
+    writeFile(file, Options.DEFAULT.getIndent(), fixtureName, 0, writer -> writeParent(writer, fixtureName, childFixtureNames));
+  }
+
+  public static void writeCombinedFile(File file, String fixtureName, List<PathExport> exports, Options options) throws IOException {
+    int numPoints = 0;
+    for (PathExport export : exports) {
+      numPoints += export.numPoints();
+    }
+    writeFile(file, options.getIndent(), fixtureName, numPoints, writer -> writeCombined(writer, fixtureName, exports, options));
+  }
+
+  /**
+   * Write a path fixture as LXF
+   */
+  public static void writeFixture(JsonWriter writer, PathExport export, Options options) throws IOException {
+    writer.beginObject();
+    writer.name(KEY_LABEL).value(export.label);
+    writer.name(KEY_TAG).value("svg");
+
+    // metadata
+    writer.name(KEY_METADATA).beginObject();
+    writer.name("generator").value(GENERATOR);
+    writer.name("length").value(export.length);
+    writer.name("numPoints").value(export.numPoints());
+    writer.endObject();
+
+    final List<Run> runs = getRuns(export, options);
+
+    // With a single component the output stays on the component. When there are
+    // several, the output moves to the fixture, where it spans all points in order.
+    final boolean fixtureOutput = runs.size() > 1;
+
+    // components
+    writer.name(KEY_COMPONENTS).beginArray();
+    for (Run run : runs) {
+      writeComponent(writer, export, options, run, !fixtureOutput);
+    }
+    writer.endArray(); // components
+
+    // output
+    if (fixtureOutput) {
+      writeOutputs(writer, export, options);
+    }
+
+    writer.endObject();
+  }
+
+  /**
+   * Write every path fixture inline as components of a single self-contained fixture.
+   * Outputs are written at the fixture level, each covering the range of points that
+   * belongs to one path.
+   */
+  public static void writeCombined(JsonWriter writer, String fixtureName, List<PathExport> exports, Options options) throws IOException {
+    int numPoints = 0;
+    for (PathExport export : exports) {
+      numPoints += export.numPoints();
+    }
+
+    writer.beginObject();
+    writer.name(KEY_LABEL).value(fixtureName);
+
+    // tags
+    writer.name(KEY_TAGS).beginArray();
+    writer.value("SVG");
+    writer.value(fixtureName);
+    writer.endArray();
+
+    // metadata
+    writer.name(KEY_METADATA).beginObject();
+    writer.name("generator").value(GENERATOR);
+    writer.name("numPaths").value(exports.size());
+    writer.name("numPoints").value(numPoints);
+    writer.endObject();
+
+    // components
+    writer.name(KEY_COMPONENTS).beginArray();
+    for (PathExport export : exports) {
+      for (Run run : getRuns(export, options)) {
+        writeComponent(writer, export, options, run, false);
+      }
+    }
+    writer.endArray();
+
+    // outputs
+    writer.name(KEY_OUTPUTS).beginArray();
+    int start = 0;
+    for (PathExport export : exports) {
+      if (export.protocol != Protocol.NONE && export.numPoints() > 0) {
+        writeOutput(writer, export, options, start);
+      }
+      start += export.numPoints();
+    }
+    writer.endArray();
+
+    writer.endObject();
+  }
+
+  /**
+   * A range of consecutive points, written either as a strip or as a point list
+   */
+  private static class Run {
+    private final int start;
+    private final int count;
+    private final boolean strip;
+
+    private Run(int start, int count, boolean strip) {
+      this.start = start;
+      this.count = count;
+      this.strip = strip;
+    }
+  }
+
+  /**
+   * Minimum number of points in a straight run for it to be written as a strip
+   */
+  private static final int MIN_STRIP_POINTS = 3;
+
+  /**
+   * Allowed deviation between consecutive steps in a strip, relative to the spacing
+   */
+  private static final float STRIP_TOLERANCE = 1e-3f;
+
+  /**
+   * Split points into straight, evenly spaced strips where requested
+   */
+  private static List<Run> getRuns(PathExport export, Options options) {
+    return options.strips
+      ? findRuns(export.coords)
+      : List.of(new Run(0, export.numPoints(), false));
+  }
+
+  /**
+   * Divide points into runs that are straight, evenly spaced and in a plane of constant z.
+   * Points between such runs are grouped into point lists.
+   */
+  private static List<Run> findRuns(float[] coords) {
+    final int numPoints = coords.length / 3;
+    final List<Run> runs = new ArrayList<>();
+    int pointsStart = 0;
+    int i = 0;
+    while (i < numPoints) {
+      final int end = findStripEnd(coords, i, numPoints);
+      if (end - i + 1 >= MIN_STRIP_POINTS) {
+        if (pointsStart < i) {
+          runs.add(new Run(pointsStart, i - pointsStart, false));
+        }
+        runs.add(new Run(i, end - i + 1, true));
+        i = end + 1;
+        pointsStart = i;
+      } else {
+        ++i;
+      }
+    }
+    if (pointsStart < numPoints) {
+      runs.add(new Run(pointsStart, numPoints - pointsStart, false));
+    }
+    return runs;
+  }
+
+  /**
+   * Index of the last point of the straight, evenly spaced run beginning at start
+   */
+  private static int findStripEnd(float[] coords, int start, int numPoints) {
+    if (start + 1 >= numPoints) {
+      return start;
+    }
+    final float dx = coords[start * 3 + 3] - coords[start * 3];
+    final float dy = coords[start * 3 + 4] - coords[start * 3 + 1];
+    final float dz = coords[start * 3 + 5] - coords[start * 3 + 2];
+    final float spacing = (float) Math.sqrt(dx*dx + dy*dy);
+    final float tolerance = spacing * STRIP_TOLERANCE;
+    if (spacing == 0 || Math.abs(dz) > tolerance) {
+      return start;
+    }
+    int end = start + 1;
+    while (end + 1 < numPoints) {
+      final int a = end * 3;
+      final int b = a + 3;
+      if (Math.abs(coords[b] - coords[a] - dx) > tolerance ||
+        Math.abs(coords[b + 1] - coords[a + 1] - dy) > tolerance ||
+        Math.abs(coords[b + 2] - coords[start * 3 + 2]) > tolerance) {
+        break;
+      }
+      ++end;
+    }
+    return end;
+  }
+
+  private static void writeComponent(JsonWriter writer, PathExport export, Options options, Run run, boolean includeOutput) throws IOException {
+    final float[] coords = export.coords;
+    writer.beginObject();
+
+    if (run.strip) {
+      // component: strip
+      final int first = run.start * 3;
+      final int last = (run.start + run.count - 1) * 3;
+      final double dx = coords[last] - coords[first];
+      final double dy = coords[last + 1] - coords[first + 1];
+      final double spacing = Math.sqrt(dx*dx + dy*dy) / (run.count - 1);
+      writer.name(KEY_TYPE).value(KEY_STRIP);
+      writer.name(KEY_NUM_POINTS).value(run.count);
+      writeNumber(writer, KEY_SPACING, spacing, options);
+      writeCoordinate(writer, KEY_X, coords[first], options);
+      writeCoordinate(writer, KEY_Y, coords[first + 1], options);
+      writeCoordinate(writer, KEY_Z, coords[first + 2], options);
+      final double roll = Math.toDegrees(Math.atan2(dy, dx));
+      if (!options.compact || roll != 0) {
+        writeNumber(writer, KEY_ROLL, roll, options);
+      }
+    } else {
+      // component: points list
+      writer.name(KEY_TYPE).value(KEY_POINTS);
+    }
+
+    //   tags
+    if (export.tags.size() > 0) {
+      writer.name(KEY_TAGS).beginArray();
+      for (String tag : export.tags) {
+        writer.value(tag);
+      }
+      writer.endArray();
+    }
+
+    //   coordinates
+    if (!run.strip) {
+      writer.name(KEY_COORDINATES).beginArray();
+      final int end = (run.start + run.count) * 3;
+      for (int i = run.start * 3; i < end; i += 3) {
+        writer.beginObject();
+        writeCoordinate(writer, KEY_X, coords[i], options);
+        writeCoordinate(writer, KEY_Y, coords[i + 1], options);
+        writeCoordinate(writer, KEY_Z, coords[i + 2], options);
+        writer.endObject();
+      }
+      writer.endArray();
+    }
+
+    // output
+    if (includeOutput) {
+      writeOutputs(writer, export, options);
+    }
+
+    writer.endObject();
+  }
+
+  private static void writeCoordinate(JsonWriter writer, String key, float value, Options options) throws IOException {
+    if (options.compact) {
+      writeCompactCoordinate(writer, key, options.round(value));
+    } else {
+      writer.name(key).value(value);
+    }
+  }
+
+  private static void writeNumber(JsonWriter writer, String key, double value, Options options) throws IOException {
+    writer.name(key).value(options.compact ? options.round(value) : value);
+  }
+
+  private static void writeOutputs(JsonWriter writer, PathExport export, Options options) throws IOException {
+    if (export.protocol != Protocol.NONE) {
+      writer.name(KEY_OUTPUTS).beginArray();
+      writeOutput(writer, export, options, -1);
+      writer.endArray();
+    }
+  }
+
+  /**
+   * Coordinates default to zero when loaded, so zero values can be left out
+   */
+  private static void writeCompactCoordinate(JsonWriter writer, String key, double value) throws IOException {
+    if (value != 0) {
+      writer.name(key).value(value);
+    }
+  }
+
+  /**
+   * Write an output.  When start is not negative the output covers numPoints points
+   * of the enclosing fixture beginning at start, otherwise it covers all points.
+   */
+  private static void writeOutput(JsonWriter writer, PathExport export, Options options, int start) throws IOException {
+    writer.beginObject();
+    writer.name(KEY_PROTOCOL).value(getProtocolForLXF(export.protocol));
+    if (start >= 0) {
+      writer.name(KEY_START).value(start);
+      writer.name(KEY_NUM).value(export.numPoints());
+    }
+    if (!options.compact) {
+      writer.name(KEY_ENABLED).value(true);
+    }
+    if (!options.compact || !DEFAULT_BYTE_ORDER.equals(export.byteOrder)) {
+      writer.name(KEY_BYTE_ORDER).value(export.byteOrder);
+    }
+    if (!options.compact || export.reverse) {
+      writer.name(KEY_REVERSE).value(export.reverse);
+    }
+    writer.name(KEY_HOST).value(export.host);
+    switch (export.protocol) {
+      case ARTNET -> {
+        writer.name(KEY_UNIVERSE).value(export.universe);
+        writer.name(KEY_CHANNEL).value(export.channel);
+        writer.name(KEY_SEQUENCE_ENABLED).value(export.sequenceEnabled);
+      }
+      case SACN -> {
+        writer.name(KEY_UNIVERSE).value(export.universe);
+        writer.name(KEY_CHANNEL).value(export.channel);
+        if (!export.sacnPriorityDefault) {
+          writer.name(KEY_PRIORITY).value(export.sacnPriority);
+        }
+      }
+      case OPC -> {
+        writer.name(KEY_TRANSPORT).value(export.transport);
+        writer.name(KEY_PORT).value(export.port);
+        writer.name(KEY_OPC_CHANNEL).value(export.opcChannel);
+        writer.name(KEY_OFFSET).value(export.opcOffset);
+      }
+      case DDP -> {
+        writer.name(KEY_DDP_DATA_OFFSET).value(export.ddpDataOffset);
+      }
+      case KINET -> {
+        writer.name(KEY_KINET_VERSION).value(export.kinetVersion);
+        writer.name(KEY_KINET_PORT).value(export.kinetPort);
+        writer.name(KEY_CHANNEL).value(export.channel);
+      }
+      case NONE -> {}
+    }
+    writer.endObject();
+  }
+
+  /**
+   * Write a parent fixture that references child fixtures by type name
+   */
+  public static void writeParent(JsonWriter writer, String fixtureName, List<String> childFixtureNames) throws IOException {
+    writer.beginObject();
+    writer.name(KEY_LABEL).value(fixtureName);
+
+    // tags
+    writer.name(KEY_TAGS).beginArray();
+    writer.value("SVG");
+    writer.value(fixtureName);
+    writer.endArray();
+
+    // metadata
+    writer.name(KEY_METADATA).beginObject();
+    writer.name("generator").value(GENERATOR);
+    writer.endObject();
+
+    // components
+    writer.name(KEY_COMPONENTS).beginArray();
+
+    // child components
+    for (String childFixtureName : childFixtureNames) {
+      writer.beginObject();
+      writer.name(KEY_TYPE).value(childFixtureName);
+      writer.endObject();
+    }
+
+    writer.endArray();
+    writer.endObject();
+  }
+
+  /**
+   * Get an LXF-compatible value for the output.protocol property.
+   * Currently these definitions only exist in the private enum JsonFixture.JsonProtocolDefinition
+   */
+  private static String getProtocolForLXF(Protocol protocol) {
+    // JSON protocol keys are defined
+    switch (protocol) {
+      case ARTNET -> {
+        return "artnet";
+      }
+      case SACN -> {
+        return "sacn";
+      }
+      case OPC -> {
+        return "opc";
+      }
+      case DDP -> {
+        return "ddp";
+      }
+      case KINET -> {
+        return "kinet";
+      }
+      case NONE -> {
+        return "";
+      }
+    }
+    return "";
+  }
+}
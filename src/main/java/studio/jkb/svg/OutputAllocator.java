@@ -0,0 +1,219 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.structure.LXBasicFixture.Protocol;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns Art-Net and sACN universes and DMX channels to path fixtures so that each
+ * controller receives as few, and as full, universes as possible.
+ *
+ * Fixtures are grouped by protocol and host and each group is packed separately,
+ * counting whole pixels only so no pixel is split across a universe boundary.
+ * When spanning is allowed, fixtures are laid end to end through consecutive
+ * universes.  Otherwise a fixture that fits in one universe never crosses a boundary:
+ * fixtures larger than a universe are placed first on fresh universes, then the rest
+ * are packed best-fit decreasing into the remaining space.
+ */
+public class OutputAllocator {
+
+  private static final int DMX_UNIVERSE_SIZE = 512;
+
+  /**
+   * sACN universes start at 1, universe 0 is reserved
+   */
+  private static final int MIN_SACN_UNIVERSE = 1;
+
+  /**
+   * Fraction of its point count that a fixture may be adjusted by to fill whole universes
+   */
+  private static final double ROUNDING_TOLERANCE = .1;
+
+  public static class Options {
+    public final boolean allowSpan;
+    public final boolean roundToUniverse;
+    public final int startUniverse;
+
+    public Options(boolean allowSpan, boolean roundToUniverse, int startUniverse) {
+      this.allowSpan = allowSpan;
+      this.roundToUniverse = roundToUniverse;
+      this.startUniverse = startUniverse;
+    }
+  }
+
+  /**
+   * Outcome of an allocation, for reporting
+   */
+  public static class Result {
+    public int numFixtures = 0;
+    public int numHosts = 0;
+    public int numUniverses = 0;
+    public int numRounded = 0;
+  }
+
+  private static class Item {
+    private final PathFixture fixture;
+    private final int numPixels;
+    private int universe;
+    private int pixel;
+
+    private Item(PathFixture fixture, int numPixels) {
+      this.fixture = fixture;
+      this.numPixels = numPixels;
+    }
+  }
+
+  /**
+   * Free space remaining at the end of one universe
+   */
+  private static class Bin {
+    private final int universe;
+    private int used;
+
+    private Bin(int universe, int used) {
+      this.universe = universe;
+      this.used = used;
+    }
+  }
+
+  /**
+   * Allocate outputs for active Art-Net and sACN fixtures.  Parameters are set directly
+   * on the fixtures; callers should wrap this in an SvgImport transaction.  When rounding
+   * to universes, Num Points is set on the fixture itself, which leaves it out of sync
+   * with the global value.
+   */
+  public static Result allocate(Collection<PathFixture> fixtures, Options options) {
+    final Result result = new Result();
+
+    // Group by protocol and host, keeping fixture order within each group
+    final Map<String, List<PathFixture>> groups = new LinkedHashMap<>();
+    for (PathFixture fixture : fixtures) {
+      final Protocol protocol = fixture.protocol.getEnum();
+      if (fixture.deactivate.isOn() || (protocol != Protocol.ARTNET && protocol != Protocol.SACN)) {
+        continue;
+      }
+      groups.computeIfAbsent(protocol.name() + "/" + fixture.host.getString(), k -> new ArrayList<>()).add(fixture);
+    }
+
+    for (List<PathFixture> group : groups.values()) {
+      result.numHosts++;
+      result.numUniverses += allocateGroup(group, options, result);
+    }
+    return result;
+  }
+
+  /**
+   * @return Number of universes used by the group
+   */
+  private static int allocateGroup(List<PathFixture> group, Options options, Result result) {
+    // Pixel size can differ per fixture, universes are counted in whole pixels of the
+    // largest pixel in the group so every fixture lands on a pixel boundary.
+    int bytesPerPixel = 1;
+    for (PathFixture fixture : group) {
+      bytesPerPixel = Math.max(bytesPerPixel, fixture.byteOrder.getEnum().getNumBytes());
+    }
+    final int pixelsPerUniverse = DMX_UNIVERSE_SIZE / bytesPerPixel;
+
+    final List<Item> items = new ArrayList<>(group.size());
+    for (PathFixture fixture : group) {
+      int numPixels = fixture.size.getValuei();
+      if (options.roundToUniverse && fixture.pointMode.getEnum() == PathFixture.PointMode.NUMPOINTS) {
+        final int rounded = roundToUniverse(fixture.numPoints.getValuei(), pixelsPerUniverse);
+        if (rounded != fixture.numPoints.getValuei() && rounded <= PathFixture.MAX_POINTS) {
+          fixture.numPoints.setValue(rounded);
+          result.numRounded++;
+        }
+        numPixels = fixture.numPoints.getValuei();
+      }
+      items.add(new Item(fixture, numPixels));
+    }
+
+    final int numUniverses = options.allowSpan
+      ? packSequential(items, pixelsPerUniverse)
+      : packBestFit(items, pixelsPerUniverse);
+
+    int startUniverse = options.startUniverse;
+    if (group.get(0).protocol.getEnum() == Protocol.SACN) {
+      startUniverse = Math.max(MIN_SACN_UNIVERSE, startUniverse);
+    }
+    for (Item item : items) {
+      item.fixture.artNetUniverse.setValue(startUniverse + item.universe);
+      item.fixture.dmxChannel.setValue(item.pixel * bytesPerPixel);
+      result.numFixtures++;
+    }
+    return numUniverses;
+  }
+
+  /**
+   * Nearest whole number of universes, if within tolerance of the point count
+   */
+  static int roundToUniverse(int numPoints, int pixelsPerUniverse) {
+    final int numUniverses = Math.max(1, (int) Math.round(numPoints / (double) pixelsPerUniverse));
+    final int rounded = numUniverses * pixelsPerUniverse;
+    return Math.abs(rounded - numPoints) <= numPoints * ROUNDING_TOLERANCE ? rounded : numPoints;
+  }
+
+  /**
+   * Lay fixtures end to end, crossing universe boundaries as needed
+   */
+  private static int packSequential(List<Item> items, int pixelsPerUniverse) {
+    long cursor = 0;
+    for (Item item : items) {
+      item.universe = (int) (cursor / pixelsPerUniverse);
+      item.pixel = (int) (cursor % pixelsPerUniverse);
+      cursor += item.numPixels;
+    }
+    return (int) ((cursor + pixelsPerUniverse - 1) / pixelsPerUniverse);
+  }
+
+  /**
+   * Place fixtures larger than a universe on fresh universes, then pack the rest
+   * best-fit decreasing so none of them cross a universe boundary
+   */
+  private static int packBestFit(List<Item> items, int pixelsPerUniverse) {
+    final List<Item> sorted = new ArrayList<>(items);
+    sorted.sort(Comparator.comparingInt((Item item) -> item.numPixels).reversed());
+
+    final List<Bin> bins = new ArrayList<>();
+    int numUniverses = 0;
+    for (Item item : sorted) {
+      if (item.numPixels > pixelsPerUniverse) {
+        item.universe = numUniverses;
+        item.pixel = 0;
+        numUniverses += (item.numPixels + pixelsPerUniverse - 1) / pixelsPerUniverse;
+        final int tail = item.numPixels % pixelsPerUniverse;
+        if (tail > 0) {
+          bins.add(new Bin(numUniverses - 1, tail));
+        }
+        continue;
+      }
+
+      Bin best = null;
+      for (Bin bin : bins) {
+        final int free = pixelsPerUniverse - bin.used;
+        if (free >= item.numPixels && (best == null || free < pixelsPerUniverse - best.used)) {
+          best = bin;
+        }
+      }
+      if (best == null) {
+        best = new Bin(numUniverses++, 0);
+        bins.add(best);
+      }
+      item.universe = best.universe;
+      item.pixel = best.used;
+      best.used += item.numPixels;
+    }
+    return numUniverses;
+  }
+}
@@ -0,0 +1,387 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
+import heronarts.lx.parameter.BoundedParameter;
+import heronarts.lx.parameter.DiscreteParameter;
+import heronarts.lx.parameter.LXListenableParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.LXParameterListener;
+import heronarts.lx.parameter.MutableParameter;
+import heronarts.lx.parameter.StringParameter;
+import heronarts.lx.structure.LXBasicFixture.Protocol;
+import studio.jkb.Format;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estimates network output load per controller (host) across path fixtures.
+ *
+ * Each active fixture contributes its point count, protocol, host and universe.
+ * Contributions are kept per fixture and applied to the controller totals as deltas
+ * when a fixture parameter changes, so the estimate stays current without rescanning
+ * every fixture.
+ */
+public class OutputEstimator extends LXComponent {
+
+  /**
+   * Ethernet + IPv4 + UDP headers, bytes per packet
+   */
+  private static final int PACKET_OVERHEAD = 42;
+
+  private static final int DMX_UNIVERSE_SIZE = 512;
+  private static final int ARTNET_HEADER = 18;
+  private static final int SACN_HEADER = 126;
+  private static final int DDP_HEADER = 10;
+  private static final int DDP_MAX_DATA = 1440;
+  private static final int OPC_HEADER = 4;
+  private static final int KINET_HEADER = 24;
+
+  public final BoundedParameter linkSpeed =
+    new BoundedParameter("Link Speed", 100, 1, 10000)
+      .setDescription("Network bandwidth available to each controller, in megabits per second")
+      .setFormatter(Format.DECIMAL_CLEAN);
+
+  public final DiscreteParameter maxUniverses =
+    new DiscreteParameter("Max Universes", 16, 1, 65536)
+      .setUnits(LXParameter.Units.INTEGER)
+      .setDescription("Number of DMX universes each controller can receive");
+
+  public final BoundedParameter targetFps =
+    new BoundedParameter("Target FPS", 60, 1, 1000)
+      .setDescription("Frame rate each controller should sustain")
+      .setFormatter(Format.DECIMAL_CLEAN);
+
+  public final MutableParameter numControllers =
+    new MutableParameter("Controllers", 0)
+      .setDescription("Number of distinct output hosts, read-only");
+
+  public final MutableParameter maxUniversesUsed =
+    new MutableParameter("Universes Used", 0)
+      .setDescription("Most universes used by any one controller, read-only");
+
+  public final MutableParameter maxBytesPerFrame =
+    new MutableParameter("Bytes Per Frame", 0)
+      .setDescription("Most bytes per frame sent to any one controller, including packet headers, read-only");
+
+  public final MutableParameter minFps =
+    new MutableParameter("Min FPS", 0)
+      .setDescription("Lowest frame rate achievable by any controller at the link speed, read-only");
+
+  public final MutableParameter numOverloaded =
+    new MutableParameter("Overloaded", 0)
+      .setDescription("Number of controllers over the universe limit or below the target frame rate, read-only");
+
+  public final StringParameter worstController =
+    new StringParameter("Worst Controller", "")
+      .setDescription("Host with the lowest achievable frame rate, read-only");
+
+  /**
+   * Output load of one fixture
+   */
+  private static class Load {
+    private static final Load NONE = new Load(null, Protocol.NONE, 0, 0, 0, 0, 0);
+
+    private final String host;
+    private final Protocol protocol;
+    private final int firstUniverse;
+    private final int numUniverses;
+    private final long dataBytes;
+    private final int numPackets;
+    private final long headerBytes;
+
+    private Load(String host, Protocol protocol, int firstUniverse, int numUniverses, long dataBytes, int numPackets, long headerBytes) {
+      this.host = host;
+      this.protocol = protocol;
+      this.firstUniverse = firstUniverse;
+      this.numUniverses = numUniverses;
+      this.dataBytes = dataBytes;
+      this.numPackets = numPackets;
+      this.headerBytes = headerBytes;
+    }
+  }
+
+  /**
+   * Load figures for one controller at the current settings.  Immutable so the UI
+   * thread can read it while the engine thread replaces it.
+   */
+  public record ControllerLoad(String host, int numFixtures, int numUniverses, long bytesPerFrame, double fps, boolean overloaded) {}
+
+  /**
+   * Running totals for one controller
+   */
+  private static class Controller {
+    public final String host;
+
+    /**
+     * Reference count of each universe, keyed by protocol and universe number
+     */
+    private final Map<Long, Integer> universes = new HashMap<>();
+    private int numFixtures = 0;
+    private long dataBytes = 0;
+    private long headerBytes = 0;
+    private int numPackets = 0;
+
+    private Controller(String host) {
+      this.host = host;
+    }
+
+    public int getNumFixtures() {
+      return this.numFixtures;
+    }
+
+    public int getNumUniverses() {
+      return this.universes.size();
+    }
+
+    public int getPacketsPerFrame() {
+      return this.numPackets;
+    }
+
+    public long getBytesPerFrame() {
+      return this.dataBytes + this.headerBytes + (long) this.numPackets * PACKET_OVERHEAD;
+    }
+
+    /**
+     * Achievable frame rate for a given link speed in megabits per second
+     */
+    public double getFps(double linkSpeedMbps) {
+      long bytesPerFrame = getBytesPerFrame();
+      return bytesPerFrame > 0 ? (linkSpeedMbps * 1e6 / 8) / bytesPerFrame : 0;
+    }
+  }
+
+  private class FixtureEntry implements LXParameterListener {
+    private final PathFixture fixture;
+    private final List<LXListenableParameter> parameters;
+    private Load load = Load.NONE;
+
+    private FixtureEntry(PathFixture fixture) {
+      this.fixture = fixture;
+      this.parameters = List.of(
+        fixture.deactivate,
+        fixture.size,
+        fixture.protocol,
+        fixture.byteOrder,
+        fixture.host,
+        fixture.artNetUniverse,
+        fixture.dmxChannel
+      );
+      for (LXListenableParameter p : this.parameters) {
+        p.addListener(this);
+      }
+    }
+
+    @Override
+    public void onParameterChanged(LXParameter p) {
+      update();
+    }
+
+    private void update() {
+      Load load = computeLoad(this.fixture);
+      removeLoad(this.load);
+      addLoad(load);
+      this.load = load;
+      refreshSummary();
+    }
+
+    private void dispose() {
+      for (LXListenableParameter p : this.parameters) {
+        p.removeListener(this);
+      }
+      removeLoad(this.load);
+      this.load = Load.NONE;
+      refreshSummary();
+    }
+  }
+
+  private final Map<PathFixture, FixtureEntry> fixtures = new HashMap<>();
+  private final Map<String, Controller> controllers = new LinkedHashMap<>();
+
+  public OutputEstimator(LX lx) {
+    super(lx, "Output Estimate");
+    addParameter("linkSpeed", this.linkSpeed);
+    addParameter("maxUniverses", this.maxUniverses);
+    addParameter("targetFps", this.targetFps);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.linkSpeed || p == this.maxUniverses || p == this.targetFps) {
+      refreshSummary();
+    }
+  }
+
+  public void addFixture(PathFixture fixture) {
+    if (this.fixtures.containsKey(fixture)) {
+      throw new IllegalStateException("Fixture already registered with OutputEstimator: " + fixture);
+    }
+    FixtureEntry entry = new FixtureEntry(fixture);
+    this.fixtures.put(fixture, entry);
+    entry.update();
+  }
+
+  public void removeFixture(PathFixture fixture) {
+    FixtureEntry entry = this.fixtures.remove(fixture);
+    if (entry != null) {
+      entry.dispose();
+    }
+  }
+
+  private volatile List<ControllerLoad> controllerLoads = List.of();
+
+  /**
+   * Load of each controller, lowest frame rate first.  Safe to call from any thread,
+   * a new list is published whenever the estimate changes.
+   */
+  public List<ControllerLoad> getControllerLoads() {
+    return this.controllerLoads;
+  }
+
+  private static Load computeLoad(PathFixture fixture) {
+    final Protocol protocol = fixture.protocol.getEnum();
+    if (fixture.deactivate.isOn() || protocol == Protocol.NONE) {
+      return Load.NONE;
+    }
+    final String host = fixture.host.getString();
+    final long dataBytes = (long) fixture.size.getValuei() * fixture.byteOrder.getEnum().getNumBytes();
+    if (dataBytes == 0) {
+      return new Load(host, protocol, 0, 0, 0, 0, 0);
+    }
+    switch (protocol) {
+      case ARTNET:
+      case SACN: {
+        // Headers are counted per universe by the controller, as universes may be shared
+        final long channels = fixture.dmxChannel.getValuei() + dataBytes;
+        final int numUniverses = (int) ((channels + DMX_UNIVERSE_SIZE - 1) / DMX_UNIVERSE_SIZE);
+        return new Load(host, protocol, fixture.artNetUniverse.getValuei(), numUniverses, dataBytes, 0, 0);
+      }
+      case DDP: {
+        final int numPackets = (int) ((dataBytes + DDP_MAX_DATA - 1) / DDP_MAX_DATA);
+        return new Load(host, protocol, 0, 0, dataBytes, numPackets, (long) numPackets * DDP_HEADER);
+      }
+      case KINET: {
+        final int numPackets = (int) ((dataBytes + DMX_UNIVERSE_SIZE - 1) / DMX_UNIVERSE_SIZE);
+        return new Load(host, protocol, 0, 0, dataBytes, numPackets, (long) numPackets * KINET_HEADER);
+      }
+      case OPC:
+      default:
+        return new Load(host, protocol, 0, 0, dataBytes, 1, OPC_HEADER);
+    }
+  }
+
+  private static int universeHeader(Protocol protocol) {
+    return protocol == Protocol.SACN ? SACN_HEADER : ARTNET_HEADER;
+  }
+
+  private static long universeKey(Protocol protocol, int universe) {
+    return ((long) protocol.ordinal() << 32) | (universe & 0xffffffffL);
+  }
+
+  private void addLoad(Load load) {
+    if (load.host == null) {
+      return;
+    }
+    Controller controller = this.controllers.computeIfAbsent(load.host, Controller::new);
+    controller.numFixtures++;
+    controller.dataBytes += load.dataBytes;
+    controller.headerBytes += load.headerBytes;
+    controller.numPackets += load.numPackets;
+    for (int u = 0; u < load.numUniverses; u++) {
+      if (controller.universes.merge(universeKey(load.protocol, load.firstUniverse + u), 1, Integer::sum) == 1) {
+        // First fixture in this universe
+        controller.numPackets++;
+        controller.headerBytes += universeHeader(load.protocol);
+      }
+    }
+  }
+
+  private void removeLoad(Load load) {
+    if (load.host == null) {
+      return;
+    }
+    Controller controller = this.controllers.get(load.host);
+    if (controller == null) {
+      return;
+    }
+    controller.numFixtures--;
+    controller.dataBytes -= load.dataBytes;
+    controller.headerBytes -= load.headerBytes;
+    controller.numPackets -= load.numPackets;
+    for (int u = 0; u < load.numUniverses; u++) {
+      long key = universeKey(load.protocol, load.firstUniverse + u);
+      if (controller.universes.merge(key, -1, Integer::sum) == 0) {
+        // Last fixture in this universe
+        controller.universes.remove(key);
+        controller.numPackets--;
+        controller.headerBytes -= universeHeader(load.protocol);
+      }
+    }
+    if (controller.numFixtures == 0) {
+      this.controllers.remove(load.host);
+    }
+  }
+
+  /**
+   * Update the summary parameters from the controller totals
+   */
+  private void refreshSummary() {
+    final double linkSpeed = this.linkSpeed.getValue();
+    final int maxUniverses = this.maxUniverses.getValuei();
+    final double targetFps = this.targetFps.getValue();
+
+    int maxUniversesUsed = 0;
+    long maxBytesPerFrame = 0;
+    double minFps = 0;
+    String worstController = "";
+    int numOverloaded = 0;
+    final List<ControllerLoad> controllerLoads = new ArrayList<>(this.controllers.size());
+    for (Controller controller : this.controllers.values()) {
+      final int numUniverses = controller.getNumUniverses();
+      final double fps = controller.getFps(linkSpeed);
+      final boolean overloaded = numUniverses > maxUniverses || fps < targetFps;
+      controllerLoads.add(new ControllerLoad(controller.host, controller.getNumFixtures(),
+        numUniverses, controller.getBytesPerFrame(), fps, overloaded));
+      maxUniversesUsed = Math.max(maxUniversesUsed, numUniverses);
+      maxBytesPerFrame = Math.max(maxBytesPerFrame, controller.getBytesPerFrame());
+      if (worstController.isEmpty() || fps < minFps) {
+        minFps = fps;
+        worstController = controller.host;
+      }
+      if (overloaded) {
+        ++numOverloaded;
+      }
+    }
+    controllerLoads.sort(Comparator.comparingDouble(ControllerLoad::fps));
+    this.controllerLoads = Collections.unmodifiableList(controllerLoads);
+
+    this.numControllers.setValue(this.controllers.size());
+    this.maxUniversesUsed.setValue(maxUniversesUsed);
+    this.maxBytesPerFrame.setValue(maxBytesPerFrame);
+    this.minFps.setValue(minFps);
+    this.worstController.setValue(worstController);
+    this.numOverloaded.setValue(numOverloaded);
+  }
+
+  @Override
+  public void dispose() {
+    for (FixtureEntry entry : this.fixtures.values()) {
+      entry.dispose();
+    }
+    this.fixtures.clear();
+    super.dispose();
+  }
+}
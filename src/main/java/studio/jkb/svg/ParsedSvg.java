@@ -0,0 +1,122 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Paths read from one SVG file, stitched if enabled, and parsed.  Reading and parsing
+ * do not touch LX, so they are done off the engine thread, with multiple files read
+ * concurrently.  Only fixture creation is left for the engine thread.
+ */
+class ParsedSvg {
+
+  /**
+   * Maximum number of SVG files read concurrently
+   */
+  private static final int MAX_READ_THREADS = 8;
+
+  final File file;
+
+  /**
+   * Number of paths in the file, before stitching
+   */
+  final int numFound;
+
+  final List<PathFixture.ParsedPath> paths;
+
+  final long readNanos;
+  final long stitchNanos;
+  final long parseNanos;
+
+  private ParsedSvg(File file, int numFound, List<PathFixture.ParsedPath> paths, long readNanos, long stitchNanos, long parseNanos) {
+    this.file = file;
+    this.numFound = numFound;
+    this.paths = paths;
+    this.readNanos = readNanos;
+    this.stitchNanos = stitchNanos;
+    this.parseNanos = parseNanos;
+  }
+
+  /**
+   * @param stitchTolerance Tolerance for joining paths that meet end to end, or negative
+   *   to leave paths as they are
+   */
+  static ParsedSvg read(File file, double stitchTolerance) throws Exception {
+    long start = System.nanoTime();
+    List<String> pathData = SvgUtils.loadSVGpaths(file);
+    final long readNanos = System.nanoTime() - start;
+    final int numFound = pathData.size();
+
+    long stitchNanos = 0;
+    if (stitchTolerance >= 0) {
+      start = System.nanoTime();
+      pathData = PathStitcher.stitch(pathData, stitchTolerance);
+      stitchNanos = System.nanoTime() - start;
+    }
+
+    long parseNanos = 0;
+    final List<PathFixture.ParsedPath> paths = new ArrayList<>(pathData.size());
+    for (String data : pathData) {
+      final PathFixture.ParsedPath path = PathFixture.ParsedPath.parse(data);
+      parseNanos += path.parseNanos();
+      paths.add(path);
+    }
+    return new ParsedSvg(file, numFound, paths, readNanos, stitchNanos, parseNanos);
+  }
+
+  /**
+   * Read and parse files concurrently.  Files that fail are logged and left out.
+   *
+   * @return Parsed files in the order given
+   */
+  static List<ParsedSvg> readAll(List<File> files, double stitchTolerance) {
+    final List<ParsedSvg> parsed = new ArrayList<>(files.size());
+    if (files.size() == 1) {
+      try {
+        parsed.add(read(files.get(0), stitchTolerance));
+      } catch (Exception x) {
+        LX.error(x, "Error loading SVG: " + files.get(0));
+      }
+      return parsed;
+    }
+
+    final int numThreads = Math.min(files.size(), Math.min(MAX_READ_THREADS, Runtime.getRuntime().availableProcessors()));
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+      Thread thread = new Thread(runnable, "SVG Import Read");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final List<Future<ParsedSvg>> futures = new ArrayList<>(files.size());
+    for (File file : files) {
+      futures.add(executor.submit(() -> read(file, stitchTolerance)));
+    }
+    executor.shutdown();
+
+    for (int i = 0; i < files.size(); i++) {
+      try {
+        parsed.add(futures.get(i).get());
+      } catch (ExecutionException x) {
+        LX.error(x.getCause(), "Error loading SVG: " + files.get(i));
+      } catch (InterruptedException x) {
+        Thread.currentThread().interrupt();
+        LX.error("Interrupted loading SVG: " + files.get(i));
+        executor.shutdownNow();
+        break;
+      }
+    }
+    return parsed;
+  }
+}
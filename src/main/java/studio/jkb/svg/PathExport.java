@@ -0,0 +1,132 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.model.LXPoint;
+import heronarts.lx.structure.LXBasicFixture.Protocol;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of everything written to a PathFixture's LXF file.
+ * Taken on the thread that owns the fixture so the file can be written elsewhere.
+ */
+public class PathExport {
+
+  public final String label;
+  public final List<String> tags;
+
+  /**
+   * Length of the path minus padding, in model units
+   */
+  public final double length;
+
+  /**
+   * Point positions as x,y,z triplets
+   */
+  public final float[] coords;
+
+  /**
+   * Distance of each point along the path, in model units
+   */
+  public final float[] positions;
+
+  public final Protocol protocol;
+  public final String byteOrder;
+  public final boolean reverse;
+  public final String host;
+  public final int universe;
+  public final int channel;
+  public final boolean sequenceEnabled;
+  public final int sacnPriority;
+  public final boolean sacnPriorityDefault;
+  public final String transport;
+  public final int port;
+  public final int opcChannel;
+  public final int opcOffset;
+  public final int ddpDataOffset;
+  public final String kinetVersion;
+  public final int kinetPort;
+
+  PathExport(PathFixture fixture, List<String> tags, double length) {
+    this.label = fixture.getLabel();
+    this.tags = List.copyOf(tags);
+    this.length = length;
+
+    final List<LXPoint> points = fixture.getPoints();
+    this.coords = new float[points.size() * 3];
+    int i = 0;
+    for (LXPoint p : points) {
+      this.coords[i++] = p.x;
+      this.coords[i++] = p.y;
+      this.coords[i++] = p.z;
+    }
+    final float[] positions = fixture.getPathPositions();
+    this.positions = positions.length == points.size()
+      ? positions.clone()
+      : new float[points.size()];
+
+    this.protocol = fixture.protocol.getEnum();
+    this.byteOrder = fixture.byteOrder.getEnum().name();
+    this.reverse = fixture.reverse.getValueb();
+    this.host = fixture.host.getString();
+    this.universe = fixture.artNetUniverse.getValuei();
+    this.channel = fixture.dmxChannel.getValuei();
+    this.sequenceEnabled = fixture.artNetSequenceEnabled.getValueb();
+    this.sacnPriority = fixture.sacnPriority.getValuei();
+    this.sacnPriorityDefault = fixture.sacnPriority.isDefault();
+    this.transport = fixture.transport.getEnum().name();
+    this.port = fixture.port.getValuei();
+    this.opcChannel = fixture.opcChannel.getValuei();
+    this.opcOffset = fixture.opcOffset.getValuei();
+    this.ddpDataOffset = fixture.ddpDataOffset.getValuei();
+    this.kinetVersion = fixture.kinetVersion.getEnum().name();
+    this.kinetPort = fixture.kinetPort.getValuei();
+  }
+
+  public int numPoints() {
+    return this.coords.length / 3;
+  }
+
+  /**
+   * Hash of everything written to the LXF file: geometry, output settings and tags,
+   * plus the encoding options
+   */
+  public String contentHash(LxfWriter.Options options) {
+    return ExportManifest.hash(out -> {
+      out.writeBoolean(options.compact);
+      out.writeInt(options.precision);
+      out.writeBoolean(options.strips);
+      out.writeUTF(this.label);
+      out.writeInt(this.tags.size());
+      for (String tag : this.tags) {
+        out.writeUTF(tag);
+      }
+      out.writeDouble(this.length);
+      out.writeInt(this.coords.length);
+      for (float coord : this.coords) {
+        out.writeFloat(coord);
+      }
+      out.writeUTF(this.protocol.name());
+      out.writeUTF(this.byteOrder);
+      out.writeBoolean(this.reverse);
+      out.writeUTF(this.host);
+      out.writeInt(this.universe);
+      out.writeInt(this.channel);
+      out.writeBoolean(this.sequenceEnabled);
+      out.writeInt(this.sacnPriority);
+      out.writeBoolean(this.sacnPriorityDefault);
+      out.writeUTF(this.transport);
+      out.writeInt(this.port);
+      out.writeInt(this.opcChannel);
+      out.writeInt(this.opcOffset);
+      out.writeInt(this.ddpDataOffset);
+      out.writeUTF(this.kinetVersion);
+      out.writeInt(this.kinetPort);
+    });
+  }
+}
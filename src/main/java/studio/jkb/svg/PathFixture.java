@@ -6,10 +6,7 @@
 
 package studio.jkb.svg;
 
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.stream.JsonWriter;
 import heronarts.lx.LX;
 import heronarts.lx.model.LXPoint;
 import heronarts.lx.parameter.BooleanParameter;
@@ -23,14 +20,16 @@ import heronarts.lx.transform.LXMatrix;
 import heronarts.lx.utils.LXUtils;
 import studio.jkb.DistanceUnits;
 import studio.jkb.Format;
+import studio.jkb.jfr.CoordinateRebuildEvent;
+import studio.jkb.jfr.PathParseEvent;
+import studio.jkb.jfr.PointGeometryEvent;
 import studio.jkb.structure.JsonKeys;
 
 import java.awt.geom.Path2D;
 import java.awt.geom.PathIterator;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -151,13 +150,21 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
   public final MutableParameter size = new MutableParameter("Size", 0)
       .setDescription("Calculated number of points in this fixture, read-only");
 
-  private String pathData;
-  private Path2D path;
+  /**
+   * Path vertices as x,y pairs in path units.  This is the only copy of the path
+   * kept by the fixture, the SVG path data is rebuilt from it when saving.
+   */
+  private double[] vertices = new double[0];
+
+  /**
+   * Scale from path units to model units, set when coordinates are rebuilt
+   */
+  private double modelScale = 1;
 
   /**
-   * Coordinates define the path on which the points are placed.
+   * Distance of each vertex from the start of the path, in model units
    */
-  private final List<Coordinate> coordinates = new ArrayList<Coordinate>();
+  private double[] vertexDistances = new double[0];
 
   /**
    * Calculated length of coordinates path, in model units
@@ -169,11 +176,37 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
    */
   private int sizeForSpacingMode = 0;
 
+  /**
+   * Distance of each point along the path from its start, in model units
+   */
+  private float[] pathPositions = new float[0];
+
+  /**
+   * Geometry transform of the last point regeneration, to place path vertices in the preview
+   */
+  private final LXMatrix geometryTransform = new LXMatrix();
+
+  /**
+   * Incremented each time points are regenerated, read by the preview on the engine thread
+   */
+  private int geometryVersion = 0;
+
+  // Cumulative time spent in each stage of point generation, for diagnostics
+  private long rebuildNanos = 0;
+  private long geometryNanos = 0;
+
   public PathFixture(LX lx) {
-    this(lx, null);
+    this(lx, (ParsedPath) null);
   }
 
   public PathFixture(LX lx, String pathData) {
+    this(lx, pathData != null ? ParsedPath.parse(pathData) : null);
+  }
+
+  /**
+   * Create a fixture from path data that was parsed ahead of time
+   */
+  public PathFixture(LX lx, ParsedPath parsedPath) {
     super(lx, "Path");
 
     addMetricsParameter("pathUnits", this.pathUnits);
@@ -188,8 +221,56 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
     addMetricsParameter("padStart", this.padStart);
     addMetricsParameter("padEnd", this.padEnd);
 
-    if (pathData != null) {
-      setPathData(pathData);
+    if (parsedPath != null) {
+      setPath(parsedPath);
+    }
+  }
+
+  /**
+   * SVG path data parsed into vertices, as x,y pairs in path units.  Parsing does not
+   * depend on the fixture, so it can be done on another thread before the fixture is
+   * created.  The fixture keeps the vertices array, it should not be modified.
+   */
+  public record ParsedPath(double[] vertices, long parseNanos) {
+    public static ParsedPath parse(String pathData) {
+      final PathParseEvent event = new PathParseEvent();
+      event.begin();
+      final long start = System.nanoTime();
+      final double[] vertices = toVertices(SvgUtils.parseSVGPath(pathData));
+      final long parseNanos = System.nanoTime() - start;
+      event.end();
+      if (event.shouldCommit()) {
+        event.pathDataLength = pathData.length();
+        event.commit();
+      }
+      return new ParsedPath(vertices, parseNanos);
+    }
+
+    /**
+     * Moves and lines both become vertices.  So far in my testing a move in the middle
+     * of a path gets imported as a separate path, so it is treated as a line here.
+     */
+    private static double[] toVertices(Path2D path) {
+      int size = 0;
+      double[] vertices = new double[64];
+      final double[] coords = new double[6];
+      final PathIterator iterator = path.getPathIterator(null);
+      while (!iterator.isDone()) {
+        switch (iterator.currentSegment(coords)) {
+          case PathIterator.SEG_MOVETO:
+          case PathIterator.SEG_LINETO:
+            if (size == vertices.length) {
+              vertices = Arrays.copyOf(vertices, size * 2);
+            }
+            vertices[size++] = coords[0];
+            vertices[size++] = coords[1];
+            break;
+          case PathIterator.SEG_CLOSE:
+            break;
+        }
+        iterator.next();
+      }
+      return Arrays.copyOf(vertices, size);
     }
   }
 
@@ -208,15 +289,59 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
     metaData.put("padEnd", String.valueOf(this.padEnd.getValue()));
   }
 
-  private void setPathData(String pathData) {
-    this.pathData = pathData;
-    this.path = SvgUtils.parseSVGPath(pathData);
+  private void setPath(ParsedPath parsedPath) {
+    this.vertices = parsedPath.vertices;
     rebuildCoordinates();
     refreshSizeForSpacing();
   }
 
+  private int regenerationSuspended = 0;
+  private LXParameter pendingMetricsChange = null;
+  private boolean pendingRebuildCoordinates = false;
+
+  /**
+   * Defer point regeneration while several metrics parameters are changed.
+   * Calls may be nested and must be matched by resumeRegeneration().
+   */
+  public void suspendRegeneration() {
+    ++this.regenerationSuspended;
+  }
+
+  /**
+   * Apply any metrics changes made while suspended, regenerating the points once.
+   */
+  public void resumeRegeneration() {
+    if (this.regenerationSuspended == 0) {
+      throw new IllegalStateException("PathFixture regeneration was not suspended");
+    }
+    if (--this.regenerationSuspended == 0 && this.pendingMetricsChange != null) {
+      final LXParameter p = this.pendingMetricsChange;
+      this.pendingMetricsChange = null;
+      if (this.pendingRebuildCoordinates) {
+        rebuildCoordinates();
+      }
+      this.pendingRebuildCoordinates = false;
+      refreshSizeForSpacing();
+      super.onParameterChanged(p);
+    }
+  }
+
+  private boolean isPathMetricsParameter(LXParameter p) {
+    return
+      p == this.pathUnits || p == this.modelUnits || p == this.pointMode ||
+      p == this.numPoints || p == this.spacing || p == this.spacingUnits ||
+      p == this.density || p == this.densityUnits || p == this.reversePath ||
+      p == this.padStart || p == this.padEnd;
+  }
+
   @Override
   public void onParameterChanged(LXParameter p) {
+    if (this.regenerationSuspended > 0 && isPathMetricsParameter(p)) {
+      // Regenerate once when resumed
+      this.pendingMetricsChange = p;
+      this.pendingRebuildCoordinates |= (p == this.pathUnits || p == this.modelUnits);
+      return;
+    }
     if (p == this.pathUnits || p == this.modelUnits) {
       rebuildCoordinates();
       refreshSizeForSpacing();
@@ -231,72 +356,57 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
   }
 
   /**
-   * Calculate coordinates from the path, apply scaling here.
+   * Calculate the scaled distance of each vertex along the path.
    */
   private void rebuildCoordinates() {
-    final DistanceUnits pathUnits = this.pathUnits.getEnum();
-    final DistanceUnits modelUnits = this.modelUnits.getEnum();
-
-    this.coordinates.clear();
-    double[] coords = new double[6];
-
-    PathIterator iterator = this.path.getPathIterator(null);
-    while (!iterator.isDone()) {
-      switch (iterator.currentSegment(coords)) {
-        case PathIterator.SEG_MOVETO:
-          // Note this doesn't handle moves in the middle of a path.  So far in my testing
-          // this gets imported as a separate path.  If we need to handle mid-path moves,
-          // we'll need group the coordinates into path segments.
-          this.coordinates.add(new Coordinate(
-            pathUnits.to(modelUnits, coords[0]),
-            pathUnits.to(modelUnits, coords[1])));
-          break;
-
-        case PathIterator.SEG_LINETO:
-          this.coordinates.add(new Coordinate(
-            pathUnits.to(modelUnits, coords[0]),
-            pathUnits.to(modelUnits, coords[1])));
-          break;
-
-        case PathIterator.SEG_CLOSE:
-          break;
-      }
-      iterator.next();
+    final CoordinateRebuildEvent event = new CoordinateRebuildEvent();
+    event.begin();
+    final long start = System.nanoTime();
+    this.modelScale = this.pathUnits.getEnum().to(this.modelUnits.getEnum(), 1);
+
+    final int numVertices = getNumVertices();
+    if (this.vertexDistances.length != numVertices) {
+      this.vertexDistances = new double[numVertices];
     }
 
-    calcCoordsLength();
-  }
-
-  private void calcCoordsLength() {
+    // Coordinates length is the sum of all distances between the coordinates
     this.coordsLength = 0;
-    if (this.coordinates.size() == 0) {
-      return;
+    for (int i = 1; i < numVertices; i++) {
+      final double dx = getX(i) - getX(i - 1);
+      final double dy = getY(i) - getY(i - 1);
+      this.coordsLength += Math.sqrt(dx*dx + dy*dy);
+      this.vertexDistances[i] = this.coordsLength;
     }
 
-    // Calculate coordinates length as the sum of all distances between the coordinates
-    Coordinate prevCoord = this.coordinates.get(0);
-    prevCoord.distOverall = 0;
-    prevCoord.distPrev = 0;
-    for (int i = 1; i < this.coordinates.size(); i++) {
-      Coordinate coord = this.coordinates.get(i);
-      double distPrev = coord.dist(prevCoord);
-      this.coordsLength += distPrev;
-      coord.distPrev = distPrev;
-      coord.distOverall = this.coordsLength;
-      prevCoord = coord;
+    this.rebuildNanos += System.nanoTime() - start;
+    event.end();
+    if (event.shouldCommit()) {
+      event.fixture = getLabel();
+      event.numVertices = numVertices;
+      event.commit();
     }
+  }
 
-    // Calculate normalized position of coordinates along path
-    if (this.coordsLength > 0) {
-      for (Coordinate coord : this.coordinates) {
-        coord.n = coord.distOverall / this.coordsLength;
-      }
-    } else {
-      // Zero net distance between coordinates. Avoid divide by zero.
-      for (Coordinate coord : this.coordinates) {
-        coord.n = 0;
-      }
-    }
+  /**
+   * Vertex x position in model units
+   */
+  private double getX(int vertex) {
+    return this.vertices[vertex * 2] * this.modelScale;
+  }
+
+  /**
+   * Vertex y position in model units
+   */
+  private double getY(int vertex) {
+    return this.vertices[vertex * 2 + 1] * this.modelScale;
+  }
+
+  /**
+   * Normalized distance of a vertex from the start of the path
+   */
+  private double getNormalized(int vertex) {
+    // Zero net distance between coordinates. Avoid divide by zero.
+    return this.coordsLength > 0 ? this.vertexDistances[vertex] / this.coordsLength : 0;
   }
 
   /**
@@ -339,6 +449,27 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
 
   @Override
   protected void computePointGeometry(LXMatrix transform, List<LXPoint> points) {
+    final PointGeometryEvent event = new PointGeometryEvent();
+    event.begin();
+    final long start = System.nanoTime();
+    this.geometryTransform.set(transform);
+    _computePointGeometry(transform, points);
+    ++this.geometryVersion;
+    this.geometryNanos += System.nanoTime() - start;
+    event.end();
+    if (event.shouldCommit()) {
+      event.fixture = getLabel();
+      event.pointMode = this.pointMode.getEnum().name();
+      event.numVertices = getNumVertices();
+      event.numPoints = points.size();
+      event.commit();
+    }
+  }
+
+  private void _computePointGeometry(LXMatrix transform, List<LXPoint> points) {
+    if (this.pathPositions.length != points.size()) {
+      this.pathPositions = new float[points.size()];
+    }
     switch (this.pointMode.getEnum()) {
       case NUMPOINTS:
         final double activeLength = getActiveLength();
@@ -354,17 +485,17 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
       default:
         int i = 0;
         for (LXPoint p : points) {
-          Coordinate c = this.coordinates.get(i++);
-          transform.translate(c.xf, c.yf, 0);
-          p.set(transform);
-          transform.translate(-c.xf, -c.yf, 0);
+          this.pathPositions[i] = (float) this.vertexDistances[i];
+          setPoint(transform, p, getX(i), getY(i));
+          ++i;
         }
         break;
     }
   }
 
   private void _computePointsOnPath(LXMatrix transform, List<LXPoint> points, double spacing) {
-    if (this.coordinates.size() == 0) {
+    final int numVertices = getNumVertices();
+    if (numVertices == 0) {
       return;
     }
     final double nSpacing = this.coordsLength == 0 ? 0 : spacing / this.coordsLength;
@@ -375,57 +506,59 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
     // The point coordinates are never used as an intermediate position in a rolling calculation
     // of distance traveled, to avoid rounding errors.
     int iCoord = 0;
-    Coordinate coord = this.coordinates.get(0);
+    double nCoord = getNormalized(0);
 
     for (int i = 0; i < points.size(); i++) {
       LXPoint point = points.get(i);
       // Normalized position of point along path, accounting for offsets.
       // Constrained because the math will sometimes slip above 1 on the last point.
       double nPoint = LXUtils.constrain(nPadStart + (i * nSpacing), 0, 1);
-      while (iCoord < this.coordinates.size()) {
-        if (coord.n == nPoint) {
+      this.pathPositions[i] = (float) (nPoint * this.coordsLength);
+      while (iCoord < numVertices) {
+        if (nCoord == nPoint) {
           // Point lines up with previous coordinate.
-          transform.translate(coord.xf, coord.yf, 0);
-          point.set(transform);
-          transform.translate(-coord.xf, -coord.yf, 0);
+          setPoint(transform, point, getX(iCoord), getY(iCoord));
           // Done with this point, but don't assume we're done with the coordinate until we pass it
           break;
         }
 
-        if (iCoord + 1 == this.coordinates.size()) {
+        if (iCoord + 1 == numVertices) {
           // We ran off the end. This shouldn't happen. Set it to the last coordinate.
           LX.error("Point didn't fit on the path");
-          transform.translate(coord.xf, coord.yf, 0);
-          point.set(transform);
-          transform.translate(-coord.xf, -coord.yf, 0);
+          setPoint(transform, point, getX(iCoord), getY(iCoord));
           break;
         }
-        Coordinate coordNext = this.coordinates.get(iCoord + 1);
+        double nNext = getNormalized(iCoord + 1);
 
-        if (coordNext.n < nPoint) {
+        if (nNext < nPoint) {
           // Advance to next coordinate
           ++iCoord;
-          coord = coordNext;
-        } else if (coordNext.n == nPoint) {
+          nCoord = nNext;
+        } else if (nNext == nPoint) {
           // Point lines up with next coordinate
-          transform.translate(coordNext.xf, coordNext.yf, 0);
-          point.set(transform);
-          transform.translate(-coordNext.xf, -coordNext.yf, 0);
+          setPoint(transform, point, getX(iCoord + 1), getY(iCoord + 1));
           // Done with this point, but don't assume we're done with the coordinate until we pass it
           break;
         } else {
           // Point falls between these two coordinates
-          double lerp = (nPoint - coord.n) / (coordNext.n - coord.n);
-          Coordinate pointCoord = coord.lerp(coordNext, lerp);
-          transform.translate(pointCoord.xf, pointCoord.yf, 0);
-          point.set(transform);
-          transform.translate(-pointCoord.xf, -pointCoord.yf, 0);
+          double lerp = (nPoint - nCoord) / (nNext - nCoord);
+          setPoint(transform, point,
+            LXUtils.lerp(getX(iCoord), getX(iCoord + 1), lerp),
+            LXUtils.lerp(getY(iCoord), getY(iCoord + 1), lerp));
           break;
         }
       }
     }
   }
 
+  private static void setPoint(LXMatrix transform, LXPoint point, double x, double y) {
+    final float xf = (float) x;
+    final float yf = (float) y;
+    transform.translate(xf, yf, 0);
+    point.set(transform);
+    transform.translate(-xf, -yf, 0);
+  }
+
   @Override
   protected int size() {
     switch (this.pointMode.getEnum()) {
@@ -437,7 +570,7 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
         return this.sizeForSpacingMode;
       case DIRECT:
       default:
-        return this.coordinates.size();
+        return getNumVertices();
     }
   }
 
@@ -462,98 +595,23 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
    * @return The fixture name for use in a parent fixture, or null if error.
    */
   public String exportTo(File file) {
+    return exportTo(file, LxfWriter.Options.DEFAULT);
+  }
+
+  /**
+   * Export this fixture to a specified LXF file
+   * @param file Target LXF file
+   * @param options LXF encoding options
+   * @return The fixture name for use in a parent fixture, or null if error.
+   */
+  public String exportTo(File file, LxfWriter.Options options) {
     if (!this.lx.permissions.canSave()) {
       LX.error(Math.random() > .5 ? "Savings Await - Sign Up and Start Saving!" : "Sign Up & Save More Today!");
       return null;
     }
 
-    JsonObject obj = new JsonObject();
-    obj.addProperty(KEY_LABEL, this.getLabel());
-    obj.addProperty(KEY_TAG, "svg");
-
-    // metadata
-    JsonObject metadata = new JsonObject();
-    metadata.addProperty("generator", "Chromatik, SVG Import Plugin, Version " + SvgImportPlugin.VERSION);
-    metadata.addProperty("length", getActiveLength());
-    metadata.addProperty("numPoints", this.points.size());
-    obj.add(KEY_METADATA, metadata);
-
-    // components
-    JsonArray components = new JsonArray();
-    obj.add(KEY_COMPONENTS, components);
-
-    // component: points list
-    JsonObject component = new JsonObject();
-    components.add(component);
-
-    //   type
-    component.addProperty("type", KEY_POINTS);
-
-    //   tags
-    if (this.tagList.size() > 0) {
-      JsonArray tags = new JsonArray();
-      for (String tag : this.tagList) {
-        tags.add(tag);
-      }
-      component.add(KEY_TAGS, tags);
-    }
-
-    //   coordinates
-    JsonArray coords = new JsonArray();
-    component.add(KEY_COORDINATES, coords);
-    for (LXPoint p : this.points) {
-      JsonObject coord = new JsonObject();
-      coord.addProperty("x", p.x);
-      coord.addProperty("y", p.y);
-      coord.addProperty("z", p.z);
-      coords.add(coord);
-    }
-
-    // output
-    Protocol protocol = this.protocol.getEnum();
-    if (protocol != Protocol.NONE) {
-      JsonArray outputs = new JsonArray();
-      component.add(KEY_OUTPUTS, outputs);
-      JsonObject output = new JsonObject();
-      output.addProperty(KEY_PROTOCOL, getProtocolForLXF(this.protocol.getEnum()));
-      output.addProperty(KEY_ENABLED, true);
-      output.addProperty(KEY_BYTE_ORDER, this.byteOrder.getEnum().name());
-      output.addProperty(KEY_REVERSE, this.reverse.getValueb());
-      output.addProperty(KEY_HOST, this.host.getString());
-      switch (protocol) {
-        case ARTNET -> {
-          output.addProperty(KEY_UNIVERSE, this.artNetUniverse.getValuei());
-          output.addProperty(KEY_CHANNEL, this.dmxChannel.getValuei());
-          output.addProperty(KEY_SEQUENCE_ENABLED, this.artNetSequenceEnabled.getValueb());
-        }
-        case SACN -> {
-          output.addProperty(KEY_UNIVERSE, this.artNetUniverse.getValuei());
-          output.addProperty(KEY_CHANNEL, this.dmxChannel.getValuei());
-          if (!this.sacnPriority.isDefault()) {
-            output.addProperty(KEY_PRIORITY, this.sacnPriority.getValuei());
-          }
-        }
-        case OPC -> {
-          output.addProperty(KEY_TRANSPORT, this.transport.getEnum().name());
-          output.addProperty(KEY_PORT, this.port.getValuei());
-          output.addProperty(KEY_OPC_CHANNEL, this.opcChannel.getValuei());
-          output.addProperty(KEY_OFFSET, this.opcOffset.getValuei());
-        }
-        case DDP -> {
-          output.addProperty(KEY_DDP_DATA_OFFSET, this.ddpDataOffset.getValuei());
-        }
-        case KINET -> {
-          output.addProperty(KEY_KINET_VERSION, this.kinetVersion.getEnum().name());
-          output.addProperty(KEY_KINET_PORT, this.kinetPort.getValuei());
-          output.addProperty(KEY_CHANNEL, this.dmxChannel.getValuei());
-        }
-      }
-      outputs.add(output);
-    }
-
-    try (JsonWriter writer = new JsonWriter(new FileWriter(file))) {
-      writer.setIndent("  ");
-      new GsonBuilder().create().toJson(obj, writer);
+    try {
+      LxfWriter.writeFixtureFile(file, snapshot(), options);
       LX.log("Fixture exported successfully to " + file);
       return removeExtension(file.getName());
     } catch (IOException iox) {
@@ -563,32 +621,83 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
   }
 
   /**
-   * Get an LXF-compatible value for the output.protocol property.
-   * Currently these definitions only exist in the private enum JsonFixture.JsonProtocolDefinition
+   * Capture the exportable state of this fixture, for writing LXF on another thread
    */
-  private static String getProtocolForLXF(Protocol protocol) {
-    // JSON protocol keys are defined
-    switch (protocol) {
-      case ARTNET -> {
-        return "artnet";
-      }
-      case SACN -> {
-        return "sacn";
-      }
-      case OPC -> {
-        return "opc";
-      }
-      case DDP -> {
-        return "ddp";
-      }
-      case KINET -> {
-        return "kinet";
-      }
-      case NONE -> {
-        return "";
-      }
+  public PathExport snapshot() {
+    return new PathExport(this, this.tagList, getActiveLength());
+  }
+
+  long getRebuildNanos() {
+    return this.rebuildNanos;
+  }
+
+  long getGeometryNanos() {
+    return this.geometryNanos;
+  }
+
+  /**
+   * Length of the path before padding, in model units
+   */
+  public double getLength() {
+    return this.coordsLength;
+  }
+
+  int getGeometryVersion() {
+    return this.geometryVersion;
+  }
+
+  /**
+   * Path vertices in model space as x,y pairs, for the preview.  The path is flat
+   * so only the x and y rows of the geometry transform are applied.
+   */
+  float[] getPreviewVertices() {
+    final LXMatrix m = this.geometryTransform;
+    final int numVertices = getNumVertices();
+    final float[] vertices = new float[numVertices * 2];
+    for (int v = 0; v < numVertices; v++) {
+      final float x = (float) getX(v);
+      final float y = (float) getY(v);
+      vertices[v * 2] = m.m11 * x + m.m12 * y + m.m14;
+      vertices[v * 2 + 1] = m.m21 * x + m.m22 * y + m.m24;
+    }
+    return vertices;
+  }
+
+  /**
+   * Number of coordinates read from the path
+   */
+  public int getNumVertices() {
+    return this.vertices.length / 2;
+  }
+
+  /**
+   * Distance of each point along the path in model units, for point cloud export.
+   * The array is owned by the fixture and rewritten when points are regenerated.
+   */
+  float[] getPathPositions() {
+    return this.pathPositions;
+  }
+
+  /**
+   * Export this fixture's points to a point cloud file
+   * @param file Target file
+   * @param format Point cloud file format
+   * @return True if the file was written
+   */
+  public boolean exportPointCloud(File file, PointCloudWriter.Format format) {
+    if (!this.lx.permissions.canSave()) {
+      LX.error(Math.random() > .5 ? "Savings Await - Sign Up and Start Saving!" : "Sign Up & Save More Today!");
+      return false;
+    }
+
+    try {
+      PointCloudWriter.write(file, format, List.of(snapshot()));
+      LX.log("Point cloud exported successfully to " + file);
+      return true;
+    } catch (IOException iox) {
+      LX.error(iox, "Exception writing point cloud to " + file);
+      return false;
     }
-    return "";
   }
 
   public static String removeExtension(String filename) {
@@ -599,14 +708,29 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
     return filename;
   }
 
-  private static final String KEY_SVG_PATH = "svgpath";
+  static final String KEY_SVG_PATH = "svgpath";
 
   @Override
   public void save(LX lx, JsonObject obj) {
     super.save(lx, obj);
-    if (this.pathData != null) {
-      obj.addProperty(KEY_SVG_PATH, this.pathData);
+    if (this.vertices.length > 0) {
+      obj.addProperty(KEY_SVG_PATH, toPathData(this.vertices));
+    }
+  }
+
+  /**
+   * SVG path data for a list of vertices, as a move followed by lines
+   */
+  private static String toPathData(double[] vertices) {
+    final StringBuilder pathData = new StringBuilder();
+    for (int i = 0; i < vertices.length; i += 2) {
+      pathData
+        .append(i == 0 ? "M" : " L")
+        .append(vertices[i])
+        .append(',')
+        .append(vertices[i + 1]);
     }
+    return pathData.toString();
   }
 
   @Override
@@ -614,57 +738,9 @@ public class PathFixture extends LXBasicFixture implements JsonKeys {
     if (obj.has(KEY_SVG_PATH)) {
       final String pathData = obj.get(KEY_SVG_PATH).getAsString();
       if (!pathData.isEmpty()) {
-        setPathData(pathData);
+        setPath(PathPreParse.parse(lx, pathData));
       }
     }
     super.load(lx, obj);
   }
-
-  /**
-   * Similar to LXVector except:
-   * - Uses double to reduce accumulated error in distance
-   * - Lerp does not modify the position of this object
-   */
-  private static class Coordinate {
-    public final double x;
-    public final double y;
-    public final float xf;
-    public final float yf;
-
-    /**
-     * Distance from previous point along path
-     */
-    public double distPrev;
-
-    /**
-     * Distance from first point along path
-     */
-    public double distOverall;
-
-    /**
-     * Normalized distance from first point along path
-     */
-    public double n;
-
-    public Coordinate(double x, double y) {
-      this.x = x;
-      this.y = y;
-      this.xf = (float)x;
-      this.yf = (float)y;
-    }
-
-    public double dist(Coordinate that) {
-      double dx = this.x - that.x;
-      double dy = this.y - that.y;
-      return Math.sqrt(dx*dx + dy*dy);
-    }
-
-    public Coordinate lerp(Coordinate that, double amt) {
-      // NOTE THE DIFFERENCE FROM LXVECTOR, THIS DOES NOT MODIFY THE POSITION WITH EACH LERP()
-      return new Coordinate(
-        LXUtils.lerp(this.x, that.x, amt),
-        LXUtils.lerp(this.y, that.y, amt)
-      );
-    }
-  }
 }
@@ -0,0 +1,342 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
+import heronarts.lx.LXLoopTask;
+import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.EnumParameter;
+import heronarts.lx.parameter.LXListenableParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.LXParameterListener;
+import heronarts.lx.parameter.StringParameter;
+import heronarts.lx.structure.LXBasicFixture.Protocol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Sorted, filtered list of the imported path fixtures for the SVG Import section.
+ *
+ * Rows are kept in sort order on the engine thread.  Parameter listeners mark a row
+ * dirty when a displayed value changes; once per frame each dirty row is moved to its
+ * new position by binary search instead of re-sorting the whole list.  Large batches
+ * of changes, such as an import or a global edit, fall back to a single full sort.
+ * The filtered rows are published as an array for the UI, which only draws the rows
+ * scrolled into view.
+ */
+public class PathList extends LXComponent implements LXLoopTask {
+
+  public enum Column {
+    LABEL("Label"),
+    LENGTH("Length"),
+    POINTS("Points"),
+    OUTPUT("Output"),
+    ACTIVE("Active");
+
+    public final String label;
+
+    private Column(String label) {
+      this.label = label;
+    }
+
+    @Override
+    public String toString() {
+      return this.label;
+    }
+  }
+
+  /**
+   * Minimum number of changed rows handled with a full sort instead of one at a time
+   */
+  private static final int MIN_FULL_SORT = 64;
+
+  public final BooleanParameter show =
+    new BooleanParameter("Show Path List", false)
+      .setDescription("Whether the list of imported paths is shown in the SVG Import section");
+
+  public final EnumParameter<Column> sortColumn =
+    new EnumParameter<Column>("Sort Column", Column.LABEL)
+      .setDescription("Column the path list is sorted by");
+
+  public final BooleanParameter sortDescending =
+    new BooleanParameter("Sort Descending", false)
+      .setDescription("Whether the path list is sorted in descending order");
+
+  public final StringParameter filter =
+    new StringParameter("Filter", "")
+      .setDescription("Only list paths whose label or output contains this text");
+
+  /**
+   * Displayed values of one row.  Immutable so the UI thread can read it while the
+   * engine thread replaces it.
+   */
+  public static class View {
+    public final String label;
+    public final double length;
+    public final int numPoints;
+    public final String output;
+    public final boolean active;
+    public final boolean selected;
+
+    private final String searchText;
+
+    private View(PathFixture fixture) {
+      this.label = fixture.getLabel();
+      this.length = fixture.getLength();
+      this.numPoints = fixture.size.getValuei();
+      this.active = !fixture.deactivate.isOn();
+      this.selected = fixture.selected.isOn();
+
+      final Protocol protocol = fixture.protocol.getEnum();
+      if (protocol == Protocol.NONE) {
+        this.output = "";
+      } else if (protocol == Protocol.ARTNET || protocol == Protocol.SACN) {
+        this.output = protocol + " " + fixture.host.getString() + " U" + fixture.artNetUniverse.getValuei();
+      } else {
+        this.output = protocol + " " + fixture.host.getString();
+      }
+      this.searchText = (this.label + "\n" + this.output).toLowerCase(Locale.ROOT);
+    }
+  }
+
+  public static class Row {
+    public final PathFixture fixture;
+
+    /**
+     * Creation order, breaks ties so every row has a unique position
+     */
+    private final long id;
+
+    private volatile View view = null;
+    private volatile boolean dirty = false;
+    private boolean removed = false;
+
+    private final LXParameterListener listener;
+
+    private Row(PathFixture fixture, long id, Queue<Row> dirtyRows) {
+      this.fixture = fixture;
+      this.id = id;
+      this.listener = (p) -> {
+        if (!this.dirty) {
+          this.dirty = true;
+          dirtyRows.add(this);
+        }
+      };
+    }
+
+    public View getView() {
+      return this.view;
+    }
+  }
+
+  private final Map<PathFixture, Row> rows = new HashMap<>();
+  private final List<Row> sorted = new ArrayList<>();
+  private final List<Row> addedRows = new ArrayList<>();
+
+  /**
+   * Rows whose displayed values changed.  Parameters may be edited from the UI thread.
+   */
+  private final Queue<Row> dirtyRows = new ConcurrentLinkedQueue<>();
+  private long nextId = 0;
+  private int numRemoved = 0;
+
+  // Set from the UI thread, applied on the engine thread
+  private volatile boolean resort = false;
+  private volatile boolean refilter = false;
+
+  private volatile Row[] filteredRows = new Row[0];
+  private volatile int numRows = 0;
+
+  public PathList(LX lx) {
+    super(lx);
+    addParameter("show", this.show);
+    addParameter("sortColumn", this.sortColumn);
+    addParameter("sortDescending", this.sortDescending);
+    addParameter("filter", this.filter);
+  }
+
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.sortColumn || p == this.sortDescending) {
+      this.resort = true;
+    } else if (p == this.filter || p == this.show) {
+      this.refilter = true;
+    }
+  }
+
+  private List<LXListenableParameter> getDisplayedParameters(PathFixture fixture) {
+    return List.of(
+      fixture.label,
+      fixture.size,
+      fixture.deactivate,
+      fixture.selected,
+      fixture.pathUnits,
+      fixture.modelUnits,
+      fixture.protocol,
+      fixture.host,
+      fixture.artNetUniverse);
+  }
+
+  void addFixture(PathFixture fixture) {
+    final Row row = new Row(fixture, this.nextId++, this.dirtyRows);
+    this.rows.put(fixture, row);
+    this.addedRows.add(row);
+    for (LXListenableParameter p : getDisplayedParameters(fixture)) {
+      p.addListener(row.listener);
+    }
+  }
+
+  void removeFixture(PathFixture fixture) {
+    final Row row = this.rows.remove(fixture);
+    if (row != null) {
+      row.removed = true;
+      ++this.numRemoved;
+      for (LXListenableParameter p : getDisplayedParameters(fixture)) {
+        p.removeListener(row.listener);
+      }
+    }
+  }
+
+  /**
+   * Rows matching the filter, in sort order.  Safe to call from any thread.
+   */
+  public Row[] getFilteredRows() {
+    return this.filteredRows;
+  }
+
+  /**
+   * Total number of rows before filtering
+   */
+  public int getNumRows() {
+    return this.numRows;
+  }
+
+  private Comparator<Row> getComparator() {
+    Comparator<View> byView = switch (this.sortColumn.getEnum()) {
+      case LABEL -> Comparator.comparing((View view) -> view.label, String.CASE_INSENSITIVE_ORDER);
+      case LENGTH -> Comparator.comparingDouble(view -> view.length);
+      case POINTS -> Comparator.comparingInt(view -> view.numPoints);
+      case OUTPUT -> Comparator.comparing((View view) -> view.output, String.CASE_INSENSITIVE_ORDER);
+      case ACTIVE -> Comparator.comparing(view -> view.active);
+    };
+    if (this.sortDescending.isOn()) {
+      byView = byView.reversed();
+    }
+    final Comparator<View> keys = byView;
+    return (a, b) -> {
+      final int compare = keys.compare(a.view, b.view);
+      return compare != 0 ? compare : Long.compare(a.id, b.id);
+    };
+  }
+
+  @Override
+  public void loop(double deltaMs) {
+    if (!this.show.isOn()) {
+      return;
+    }
+    boolean changed = this.refilter;
+    this.refilter = false;
+
+    if (this.numRemoved > 0) {
+      this.sorted.removeIf(row -> row.removed);
+      this.addedRows.removeIf(row -> row.removed);
+      this.numRemoved = 0;
+      changed = true;
+    }
+
+    // Clear the resort flag before reading the sort parameters, a change made
+    // after this point sets it again and is applied next frame
+    boolean fullSort = this.resort;
+    this.resort = false;
+    final Comparator<Row> comparator = getComparator();
+    final List<Row> dirty = new ArrayList<>();
+    for (Row row; (row = this.dirtyRows.poll()) != null; ) {
+      row.dirty = false;
+      // Rows not yet in the list get their view when they are added
+      if (!row.removed && row.view != null) {
+        dirty.add(row);
+      }
+    }
+    final int numChanges = this.addedRows.size() + dirty.size();
+    fullSort |= numChanges > Math.max(MIN_FULL_SORT, this.sorted.size() / 8);
+
+    // Rows already in the list move to their new position if their sort key changed
+    for (Row row : dirty) {
+      final View view = new View(row.fixture);
+      if (fullSort) {
+        row.view = view;
+      } else {
+        final int index = Collections.binarySearch(this.sorted, row, comparator);
+        row.view = view;
+        if (index >= 0 && !isInOrder(index, comparator)) {
+          this.sorted.remove(index);
+          insert(row, comparator);
+        }
+      }
+    }
+
+    for (Row row : this.addedRows) {
+      row.view = new View(row.fixture);
+      if (fullSort) {
+        this.sorted.add(row);
+      } else {
+        insert(row, comparator);
+      }
+    }
+    this.addedRows.clear();
+
+    if (fullSort) {
+      this.sorted.sort(comparator);
+    }
+    if (changed || fullSort || numChanges > 0) {
+      publish();
+    }
+  }
+
+  /**
+   * Whether the row at the index is still ordered relative to its neighbors
+   */
+  private boolean isInOrder(int index, Comparator<Row> comparator) {
+    final Row row = this.sorted.get(index);
+    return
+      (index == 0 || comparator.compare(this.sorted.get(index - 1), row) < 0) &&
+      (index == this.sorted.size() - 1 || comparator.compare(row, this.sorted.get(index + 1)) < 0);
+  }
+
+  private void insert(Row row, Comparator<Row> comparator) {
+    final int index = Collections.binarySearch(this.sorted, row, comparator);
+    this.sorted.add(index < 0 ? -index - 1 : index, row);
+  }
+
+  private void publish() {
+    final String filter = this.filter.getString().trim().toLowerCase(Locale.ROOT);
+    final Row[] filtered;
+    if (filter.isEmpty()) {
+      filtered = this.sorted.toArray(new Row[0]);
+    } else {
+      final List<Row> matches = new ArrayList<>();
+      for (Row row : this.sorted) {
+        if (row.view.searchText.contains(filter)) {
+          matches.add(row);
+        }
+      }
+      filtered = matches.toArray(new Row[0]);
+    }
+    this.numRows = this.sorted.size();
+    this.filteredRows = filtered;
+  }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import heronarts.lx.LX;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parses the paths of a project's PathFixtures in parallel when the project is opened.
+ *
+ * Before LX loads a project it notifies project listeners, at which point the project
+ * file is scanned here and every saved SVG path is submitted to a worker pool.  The
+ * scan streams through the file without building a JSON tree, keeping only the paths.  LX then
+ * deserializes the structure as usual, and each PathFixture picks up its finished
+ * geometry in load() instead of parsing one fixture after another.
+ */
+class PathPreParse implements LX.ProjectListener {
+
+  /**
+   * Projects with fewer paths than this are parsed as they load
+   */
+  private static final int MIN_PATHS = 16;
+
+  private static final Map<LX, PathPreParse> instances = new ConcurrentHashMap<>();
+
+  private final LX lx;
+
+  /**
+   * Pending and finished parses of the project being opened, by path data.  Identical
+   * paths share one result, the fixtures do not modify the vertices.
+   */
+  private volatile Map<String, Future<PathFixture.ParsedPath>> parsed = Map.of();
+
+  PathPreParse(LX lx) {
+    this.lx = lx;
+    instances.put(lx, this);
+    lx.addProjectListener(this);
+  }
+
+  /**
+   * Parse path data for a fixture being loaded, using the pre-parsed result if the
+   * project being opened contained it.
+   */
+  static PathFixture.ParsedPath parse(LX lx, String pathData) {
+    final PathPreParse preParse = instances.get(lx);
+    if (preParse != null) {
+      final Future<PathFixture.ParsedPath> future = preParse.parsed.get(pathData);
+      if (future != null) {
+        try {
+          return future.get();
+        } catch (ExecutionException x) {
+          LX.error(x.getCause(), "Error pre-parsing SVG path, parsing again");
+        } catch (CancellationException x) {
+          // Project load was abandoned, parse it here
+        } catch (InterruptedException x) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+    return PathFixture.ParsedPath.parse(pathData);
+  }
+
+  @Override
+  public void projectChanged(File file, Change change) {
+    switch (change) {
+      case TRY -> {
+        clear();
+        if (file != null && file.exists()) {
+          start(file);
+        }
+      }
+      case NEW, OPEN -> clear();
+      default -> { }
+    }
+  }
+
+  private void start(File file) {
+    final Set<String> paths = new LinkedHashSet<>();
+    try (JsonReader reader = new JsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+      findPaths(reader, paths);
+    } catch (Exception x) {
+      // LX reports problems with the project file when it opens it
+      LX.error(x, "Error reading SVG paths from project: " + file);
+      return;
+    }
+    if (paths.size() < MIN_PATHS) {
+      return;
+    }
+
+    final int numThreads = Math.min(paths.size(), Runtime.getRuntime().availableProcessors());
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+      Thread thread = new Thread(runnable, "SVG Path Pre-Parse");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final Map<String, Future<PathFixture.ParsedPath>> parsed = new HashMap<>();
+    for (String pathData : paths) {
+      parsed.put(pathData, executor.submit(() -> PathFixture.ParsedPath.parse(pathData)));
+    }
+    executor.shutdown();
+    this.parsed = parsed;
+  }
+
+  /**
+   * Collect the saved path data of every PathFixture in the project, skipping
+   * over all other values
+   */
+  private static void findPaths(JsonReader reader, Set<String> paths) throws IOException {
+    while (true) {
+      final JsonToken token = reader.peek();
+      switch (token) {
+        case BEGIN_OBJECT -> reader.beginObject();
+        case END_OBJECT -> reader.endObject();
+        case BEGIN_ARRAY -> reader.beginArray();
+        case END_ARRAY -> reader.endArray();
+        case NAME -> {
+          if (reader.nextName().equals(PathFixture.KEY_SVG_PATH) && reader.peek() == JsonToken.STRING) {
+            final String pathData = reader.nextString();
+            if (!pathData.isEmpty()) {
+              paths.add(pathData);
+            }
+          }
+        }
+        case END_DOCUMENT -> {
+          return;
+        }
+        default -> reader.skipValue();
+      }
+    }
+  }
+
+  /**
+   * Release results once the project has loaded, or stop work for one that did not
+   */
+  private void clear() {
+    for (Future<PathFixture.ParsedPath> future : this.parsed.values()) {
+      future.cancel(true);
+    }
+    this.parsed = Map.of();
+  }
+
+  void dispose() {
+    clear();
+    this.lx.removeProjectListener(this);
+    instances.remove(this.lx);
+  }
+}
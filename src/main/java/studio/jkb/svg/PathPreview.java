@@ -0,0 +1,188 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LXLoopTask;
+import heronarts.lx.model.LXPoint;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached geometry of the imported paths for the SVG Import preview.
+ *
+ * Runs as an engine loop task while the preview is shown.  Each frame, fixtures whose
+ * points were regenerated or whose deactivate state changed are copied into a new
+ * immutable Entry; all other entries are reused.  When anything changed a new
+ * Snapshot is published for the UI thread, which can compare entries by identity
+ * to find the fixtures it needs to redraw.
+ */
+public class PathPreview implements LXLoopTask {
+
+  /**
+   * Geometry of one fixture in model space, projected onto the x/y plane
+   */
+  public static class Entry {
+    public final boolean active;
+
+    /**
+     * Path vertices as x,y pairs
+     */
+    public final float[] vertices;
+
+    /**
+     * Point positions as x,y pairs
+     */
+    public final float[] points;
+
+    public final float xMin, yMin, xMax, yMax;
+
+    private final int version;
+
+    private Entry(PathFixture fixture) {
+      this.active = !fixture.deactivate.isOn();
+      this.version = fixture.getGeometryVersion();
+      this.vertices = fixture.getPreviewVertices();
+
+      final List<LXPoint> points = fixture.getPoints();
+      this.points = new float[points.size() * 2];
+      int i = 0;
+      for (LXPoint p : points) {
+        this.points[i++] = p.x;
+        this.points[i++] = p.y;
+      }
+
+      float xMin = Float.MAX_VALUE, yMin = Float.MAX_VALUE;
+      float xMax = -Float.MAX_VALUE, yMax = -Float.MAX_VALUE;
+      for (float[] coords : new float[][] { this.vertices, this.points }) {
+        for (i = 0; i < coords.length; i += 2) {
+          xMin = Math.min(xMin, coords[i]);
+          xMax = Math.max(xMax, coords[i]);
+          yMin = Math.min(yMin, coords[i + 1]);
+          yMax = Math.max(yMax, coords[i + 1]);
+        }
+      }
+      this.xMin = xMin;
+      this.yMin = yMin;
+      this.xMax = xMax;
+      this.yMax = yMax;
+    }
+
+    private boolean isEmpty() {
+      return this.xMin > this.xMax;
+    }
+
+    private boolean isCurrent(PathFixture fixture) {
+      return this.version == fixture.getGeometryVersion() && this.active != fixture.deactivate.isOn();
+    }
+  }
+
+  /**
+   * All entries in fixture order, with their combined bounds
+   */
+  public static class Snapshot {
+    public final List<Entry> entries;
+    public final float xMin, yMin, xMax, yMax;
+
+    private Snapshot(List<Entry> entries) {
+      this.entries = entries;
+      float xMin = Float.MAX_VALUE, yMin = Float.MAX_VALUE;
+      float xMax = -Float.MAX_VALUE, yMax = -Float.MAX_VALUE;
+      for (Entry entry : entries) {
+        if (!entry.isEmpty()) {
+          xMin = Math.min(xMin, entry.xMin);
+          yMin = Math.min(yMin, entry.yMin);
+          xMax = Math.max(xMax, entry.xMax);
+          yMax = Math.max(yMax, entry.yMax);
+        }
+      }
+      this.xMin = xMin;
+      this.yMin = yMin;
+      this.xMax = xMax;
+      this.yMax = yMax;
+    }
+
+    public boolean isEmpty() {
+      return this.xMin > this.xMax;
+    }
+  }
+
+  private static final Snapshot EMPTY = new Snapshot(List.of());
+
+  private final Collection<PathFixture> fixtures;
+  private final Map<PathFixture, Entry> entries = new HashMap<>();
+  private boolean fixturesChanged = false;
+
+  /**
+   * Set from the UI thread, cached geometry is built and released on the engine thread
+   */
+  private volatile boolean enabled = false;
+
+  private volatile Snapshot snapshot = EMPTY;
+
+  /**
+   * @param fixtures Fixtures to preview, only accessed from the engine thread
+   */
+  PathPreview(Collection<PathFixture> fixtures) {
+    this.fixtures = fixtures;
+  }
+
+  /**
+   * Start or stop tracking fixture geometry.  Stopping releases the cached geometry.
+   */
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Called when fixtures are added or removed
+   */
+  void fixturesChanged() {
+    this.fixturesChanged = true;
+  }
+
+  /**
+   * Latest published geometry, safe to call from any thread
+   */
+  public Snapshot getSnapshot() {
+    return this.snapshot;
+  }
+
+  @Override
+  public void loop(double deltaMs) {
+    if (!this.enabled) {
+      if (this.snapshot != EMPTY) {
+        this.entries.clear();
+        this.snapshot = EMPTY;
+      }
+      return;
+    }
+    boolean changed = this.fixturesChanged;
+    if (this.fixturesChanged) {
+      this.fixturesChanged = false;
+      this.entries.keySet().retainAll(this.fixtures);
+    }
+    for (PathFixture fixture : this.fixtures) {
+      final Entry entry = this.entries.get(fixture);
+      if (entry == null || !entry.isCurrent(fixture)) {
+        this.entries.put(fixture, new Entry(fixture));
+        changed = true;
+      }
+    }
+    if (changed) {
+      final List<Entry> ordered = new ArrayList<>(this.fixtures.size());
+      for (PathFixture fixture : this.fixtures) {
+        ordered.add(this.entries.get(fixture));
+      }
+      this.snapshot = new Snapshot(Collections.unmodifiableList(ordered));
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Joins SVG paths that meet end to end into single continuous paths.
+ *
+ * CAD tools often split one run into many path elements.  Endpoints of all open
+ * paths are placed in a spatial hash and two endpoints are linked when each one is
+ * the only endpoint of another path within tolerance of the other.  Branches (three
+ * or more endpoints meeting) are ambiguous and are left unjoined.  Chains of linked
+ * paths are then walked and written out as new path data, reversing segments as needed.
+ */
+public class PathStitcher {
+
+  private record Cell(long x, long y) {}
+
+  /**
+   * A single open path, as a flat list of x/y vertex pairs in path units
+   */
+  private static class Segment {
+    private final String pathData;
+    private final double[] vertices;
+
+    private Segment(String pathData, double[] vertices) {
+      this.pathData = pathData;
+      this.vertices = vertices;
+    }
+
+    private boolean isStitchable() {
+      return this.vertices != null;
+    }
+
+    private int numVertices() {
+      return this.vertices.length / 2;
+    }
+
+    private double x(int endpoint) {
+      return (endpoint & 1) == 0 ? this.vertices[0] : this.vertices[this.vertices.length - 2];
+    }
+
+    private double y(int endpoint) {
+      return (endpoint & 1) == 0 ? this.vertices[1] : this.vertices[this.vertices.length - 1];
+    }
+  }
+
+  /**
+   * Join paths whose endpoints meet within the given tolerance.
+   *
+   * @param paths SVG path data, in document order
+   * @param tolerance Maximum distance between two endpoints to be joined, in path units
+   * @return Path data after stitching, in order of the first path of each chain
+   */
+  public static List<String> stitch(List<String> paths, double tolerance) {
+    final int n = paths.size();
+    final Segment[] segments = new Segment[n];
+    for (int i = 0; i < n; i++) {
+      segments[i] = toSegment(paths.get(i));
+    }
+
+    // Spatial hash of all endpoints. Endpoint index is (segment * 2) for the start and
+    // (segment * 2 + 1) for the end, so (endpoint ^ 1) is the other end of the same segment.
+    final double cellSize = tolerance > 0 ? tolerance : 1;
+    final Map<Cell, List<Integer>> grid = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      if (segments[i].isStitchable()) {
+        for (int e = i * 2; e <= i * 2 + 1; e++) {
+          Segment segment = segments[i];
+          grid.computeIfAbsent(cell(segment.x(e), segment.y(e), cellSize), k -> new ArrayList<>()).add(e);
+        }
+      }
+    }
+
+    // Find the single neighboring endpoint of each endpoint, if there is exactly one
+    final int[] candidate = new int[n * 2];
+    Arrays.fill(candidate, -1);
+    final double toleranceSq = tolerance * tolerance;
+    for (int i = 0; i < n; i++) {
+      Segment segment = segments[i];
+      if (!segment.isStitchable()) {
+        continue;
+      }
+      for (int e = i * 2; e <= i * 2 + 1; e++) {
+        final double x = segment.x(e);
+        final double y = segment.y(e);
+        final long cx = (long) Math.floor(x / cellSize);
+        final long cy = (long) Math.floor(y / cellSize);
+        int found = -1;
+        int numFound = 0;
+        for (long gx = cx - 1; gx <= cx + 1; gx++) {
+          for (long gy = cy - 1; gy <= cy + 1; gy++) {
+            List<Integer> bucket = grid.get(new Cell(gx, gy));
+            if (bucket == null) {
+              continue;
+            }
+            for (int other : bucket) {
+              if (other / 2 == i) {
+                continue;
+              }
+              Segment otherSegment = segments[other / 2];
+              double dx = otherSegment.x(other) - x;
+              double dy = otherSegment.y(other) - y;
+              if (dx*dx + dy*dy <= toleranceSq) {
+                found = other;
+                numFound++;
+              }
+            }
+          }
+        }
+        if (numFound == 1) {
+          candidate[e] = found;
+        }
+      }
+    }
+
+    // Link endpoints that are each other's only neighbor
+    final int[] link = new int[n * 2];
+    Arrays.fill(link, -1);
+    for (int e = 0; e < n * 2; e++) {
+      int other = candidate[e];
+      if (other >= 0 && candidate[other] == e) {
+        link[e] = other;
+      }
+    }
+
+    // Walk the chains
+    final List<String> stitched = new ArrayList<>();
+    final boolean[] visited = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      if (visited[i]) {
+        continue;
+      }
+      if (!segments[i].isStitchable()) {
+        visited[i] = true;
+        stitched.add(segments[i].pathData);
+        continue;
+      }
+
+      // Walk backwards to the head of the chain, stopping if the chain is a loop
+      int head = i * 2;
+      for (int steps = 0; link[head] >= 0 && steps < n; steps++) {
+        head = link[head] ^ 1;
+        if (head / 2 == i) {
+          break;
+        }
+      }
+
+      // Walk forwards, appending each segment in the direction it was entered
+      StringBuilder pathData = new StringBuilder();
+      int numJoined = 0;
+      int e = head;
+      while (!visited[e / 2]) {
+        Segment segment = segments[e / 2];
+        visited[e / 2] = true;
+        appendVertices(pathData, segment, (e & 1) == 1, numJoined > 0);
+        ++numJoined;
+        int exit = e ^ 1;
+        if (link[exit] < 0) {
+          break;
+        }
+        e = link[exit];
+      }
+      stitched.add(numJoined > 1 ? pathData.toString() : segments[i].pathData);
+    }
+
+    return stitched;
+  }
+
+  private static Cell cell(double x, double y, double cellSize) {
+    return new Cell((long) Math.floor(x / cellSize), (long) Math.floor(y / cellSize));
+  }
+
+  /**
+   * Extract the vertices of a path.  Paths that are closed or contain more than one
+   * subpath are returned without vertices and will not be stitched.
+   */
+  private static Segment toSegment(String pathData) {
+    Path2D path = SvgUtils.parseSVGPath(pathData);
+    List<Double> vertices = new ArrayList<>();
+    double[] coords = new double[6];
+    PathIterator iterator = path.getPathIterator(null);
+    while (!iterator.isDone()) {
+      switch (iterator.currentSegment(coords)) {
+        case PathIterator.SEG_MOVETO:
+          if (!vertices.isEmpty()) {
+            return new Segment(pathData, null);
+          }
+          vertices.add(coords[0]);
+          vertices.add(coords[1]);
+          break;
+        case PathIterator.SEG_LINETO:
+          vertices.add(coords[0]);
+          vertices.add(coords[1]);
+          break;
+        case PathIterator.SEG_CLOSE:
+          return new Segment(pathData, null);
+      }
+      iterator.next();
+    }
+    if (vertices.size() < 4) {
+      return new Segment(pathData, null);
+    }
+    double[] array = new double[vertices.size()];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = vertices.get(i);
+    }
+    return new Segment(pathData, array);
+  }
+
+  /**
+   * Append the vertices of a segment to path data.  When continuing a chain, the first
+   * vertex is dropped because it coincides with the last vertex of the previous segment.
+   */
+  private static void appendVertices(StringBuilder pathData, Segment segment, boolean reversed, boolean continuing) {
+    final int numVertices = segment.numVertices();
+    for (int v = continuing ? 1 : 0; v < numVertices; v++) {
+      int index = reversed ? (numVertices - 1 - v) : v;
+      pathData
+        .append(pathData.length() == 0 ? "M" : " L")
+        .append(segment.vertices[index * 2])
+        .append(',')
+        .append(segment.vertices[index * 2 + 1]);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import studio.jkb.jfr.LxfExportEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes generated point positions for external pixel-mapping and simulation tools.
+ *
+ * The binary format is little-endian throughout:
+ * <pre>
+ * Header, 16 bytes
+ *   char[4]  magic "SVGP"
+ *   int32    version, currently 1
+ *   int32    number of points
+ *   int32    number of fixtures
+ * Points, 20 bytes each, starting at byte 16
+ *   float32  x, y, z
+ *   int32    fixture index, in the order of the fixture table
+ *   float32  distance of the point along its path, in model units
+ * Fixture table, following the points
+ *   int32    number of points
+ *   int32    label length in bytes
+ *   byte[]   label, UTF-8
+ * </pre>
+ * PLY files hold the same point records as a binary little-endian vertex element.
+ * CSV files hold one row per point with the fixture label.
+ */
+public class PointCloudWriter {
+
+  public enum Format {
+    BINARY("Binary", "bin"),
+    PLY("PLY", "ply"),
+    CSV("CSV", "csv");
+
+    public final String label;
+    public final String extension;
+
+    private Format(String label, String extension) {
+      this.label = label;
+      this.extension = extension;
+    }
+
+    @Override
+    public String toString() {
+      return this.label;
+    }
+  }
+
+  private static final byte[] MAGIC = { 'S', 'V', 'G', 'P' };
+  private static final int VERSION = 1;
+  private static final int RECORD_SIZE = 20;
+
+  /**
+   * Size of the direct write buffer, a whole number of point records
+   */
+  private static final int BUFFER_SIZE = RECORD_SIZE * 4096;
+
+  /**
+   * Write points of the given fixtures to a file, replacing it atomically
+   */
+  public static void write(File file, Format format, List<PathExport> exports) throws IOException {
+    final LxfExportEvent event = new LxfExportEvent();
+    event.begin();
+    final Path target = file.toPath().toAbsolutePath();
+    final Path temp = Files.createTempFile(target.getParent(), "." + file.getName() + ".", ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        switch (format) {
+          case BINARY -> writeBinary(channel, buffer, exports);
+          case PLY -> writePly(channel, buffer, exports);
+          case CSV -> writeCsv(channel, exports);
+        }
+      }
+      final long bytesWritten = event.isEnabled() ? Files.size(temp) : 0;
+      LxfWriter.replace(temp, target);
+      event.end();
+      if (event.shouldCommit()) {
+        event.file = target.toString();
+        event.numPoints = numPoints(exports);
+        event.bytesWritten = bytesWritten;
+        event.commit();
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static int numPoints(List<PathExport> exports) {
+    int numPoints = 0;
+    for (PathExport export : exports) {
+      numPoints += export.numPoints();
+    }
+    return numPoints;
+  }
+
+  private static void writeBinary(FileChannel channel, ByteBuffer buffer, List<PathExport> exports) throws IOException {
+    buffer.put(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putInt(numPoints(exports));
+    buffer.putInt(exports.size());
+    writeRecords(channel, buffer, exports);
+
+    // Fixture table
+    for (PathExport export : exports) {
+      final byte[] label = export.label.getBytes(StandardCharsets.UTF_8);
+      ensureRemaining(channel, buffer, 8);
+      buffer.putInt(export.numPoints());
+      buffer.putInt(label.length);
+      int offset = 0;
+      while (offset < label.length) {
+        ensureRemaining(channel, buffer, 1);
+        final int length = Math.min(buffer.remaining(), label.length - offset);
+        buffer.put(label, offset, length);
+        offset += length;
+      }
+    }
+    flush(channel, buffer);
+  }
+
+  private static void writePly(FileChannel channel, ByteBuffer buffer, List<PathExport> exports) throws IOException {
+    final String header =
+      "ply\n" +
+      "format binary_little_endian 1.0\n" +
+      "comment Chromatik, SVG Import Plugin, Version " + SvgImportPlugin.VERSION + "\n" +
+      "element vertex " + numPoints(exports) + "\n" +
+      "property float x\n" +
+      "property float y\n" +
+      "property float z\n" +
+      "property int fixture\n" +
+      "property float position\n" +
+      "end_header\n";
+    writeFully(channel, StandardCharsets.US_ASCII.encode(header));
+    writeRecords(channel, buffer, exports);
+    flush(channel, buffer);
+  }
+
+  /**
+   * Write one fixed size record per point
+   */
+  private static void writeRecords(FileChannel channel, ByteBuffer buffer, List<PathExport> exports) throws IOException {
+    for (int f = 0; f < exports.size(); f++) {
+      final PathExport export = exports.get(f);
+      final float[] coords = export.coords;
+      final float[] positions = export.positions;
+      for (int i = 0; i < positions.length; i++) {
+        ensureRemaining(channel, buffer, RECORD_SIZE);
+        buffer.putFloat(coords[i * 3]);
+        buffer.putFloat(coords[i * 3 + 1]);
+        buffer.putFloat(coords[i * 3 + 2]);
+        buffer.putInt(f);
+        buffer.putFloat(positions[i]);
+      }
+    }
+  }
+
+  private static void writeCsv(FileChannel channel, List<PathExport> exports) throws IOException {
+    final StringBuilder csv = new StringBuilder(BUFFER_SIZE + 256);
+    csv.append("fixture,label,index,x,y,z,position\n");
+    for (int f = 0; f < exports.size(); f++) {
+      final PathExport export = exports.get(f);
+      final String label = csvEscape(export.label);
+      for (int i = 0; i < export.positions.length; i++) {
+        csv.append(f).append(',')
+          .append(label).append(',')
+          .append(i).append(',')
+          .append(export.coords[i * 3]).append(',')
+          .append(export.coords[i * 3 + 1]).append(',')
+          .append(export.coords[i * 3 + 2]).append(',')
+          .append(export.positions[i]).append('\n');
+        if (csv.length() >= BUFFER_SIZE) {
+          writeFully(channel, StandardCharsets.UTF_8.encode(CharBuffer.wrap(csv)));
+          csv.setLength(0);
+        }
+      }
+    }
+    writeFully(channel, StandardCharsets.UTF_8.encode(CharBuffer.wrap(csv)));
+  }
+
+  private static String csvEscape(String value) {
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int numBytes) throws IOException {
+    if (buffer.remaining() < numBytes) {
+      flush(channel, buffer);
+    }
+  }
+
+  private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+    buffer.flip();
+    writeFully(channel, buffer);
+    buffer.clear();
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import com.google.gson.JsonObject;
+import heronarts.lx.LX;
+import heronarts.lx.LXComponent;
+import heronarts.lx.parameter.MutableParameter;
+
+/**
+ * Timing statistics for one stage of work, in milliseconds.  Values are read-only
+ * parameters so they can be shown in the UI and read over OSC.  They describe the
+ * current session only and are cleared when a project is loaded.
+ */
+public class StageTimer extends LXComponent {
+
+  public final MutableParameter last =
+    new MutableParameter("Last", 0)
+      .setDescription("Duration of the most recent run of this stage in milliseconds, read-only");
+
+  public final MutableParameter mean =
+    new MutableParameter("Mean", 0)
+      .setDescription("Mean duration of this stage in milliseconds, read-only");
+
+  public final MutableParameter max =
+    new MutableParameter("Max", 0)
+      .setDescription("Longest duration of this stage in milliseconds, read-only");
+
+  public final MutableParameter count =
+    new MutableParameter("Count", 0)
+      .setDescription("Number of times this stage has run, read-only");
+
+  private long totalNanos = 0;
+
+  public StageTimer(LX lx, String label) {
+    super(lx, label);
+    addParameter("last", this.last);
+    addParameter("mean", this.mean);
+    addParameter("max", this.max);
+    addParameter("count", this.count);
+  }
+
+  /**
+   * Record one run of this stage
+   */
+  public void record(long nanos) {
+    final int count = this.count.getValuei() + 1;
+    final double millis = nanos / 1e6;
+    this.totalNanos += nanos;
+    this.last.setValue(millis);
+    this.mean.setValue(this.totalNanos / 1e6 / count);
+    if (count == 1 || millis > this.max.getValue()) {
+      this.max.setValue(millis);
+    }
+    this.count.setValue(count);
+  }
+
+  @Override
+  public void load(LX lx, JsonObject obj) {
+    super.load(lx, obj);
+    // Saved values are from an earlier session and have no matching total
+    reset();
+  }
+
+  public void reset() {
+    this.totalNanos = 0;
+    this.last.setValue(0);
+    this.mean.setValue(0);
+    this.max.setValue(0);
+    this.count.setValue(0);
+  }
+}
@@ -0,0 +1,338 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.lx.LX;
+import studio.jkb.DistanceUnits;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless batch conversion of SVG files to LXF fixtures, for build pipelines.
+ *
+ * Each SVG is imported the same way as the SVG Import section: paths are read,
+ * optionally stitched and parsed by ParsedSvg, then turned into PathFixtures whose
+ * points are generated by the fixtures themselves.  Files are converted in parallel,
+ * each worker thread owning a headless LX instance.
+ *
+ * <pre>
+ * java -cp SVG-Import.jar:glxstudio.jar studio.jkb.svg.SvgConvert
+ *   --out fixtures --path-units mm --model-units in --spacing 2 --spacing-units in
+ *   --pad-start 1 --pad-end 1 drawings/
+ * </pre>
+ * By default each SVG becomes one combined LXF file named after it.  With --separate,
+ * each path is written to its own LXF file plus a parent LXF that groups them.
+ * Padding is in model units.  Exits with status 1 if any file fails to convert.
+ */
+public class SvgConvert {
+
+  private static final String USAGE =
+    "Usage: SvgConvert [options] <file.svg|folder>...\n" +
+    "  --out <folder>             Output folder, default is next to each SVG\n" +
+    "  --path-units <units>       Units of the SVG paths (in, ft, yd, mm, cm, m), default in\n" +
+    "  --model-units <units>      Units of the Chromatik model, default in\n" +
+    "  --mode <mode>              Point mode: direct, density, spacing or numpoints, default spacing\n" +
+    "  --spacing <n>              Spacing between points, default 1\n" +
+    "  --spacing-units <units>    Units of spacing, default in\n" +
+    "  --density <n>              Points per density unit, default 60\n" +
+    "  --density-units <units>    Units of density, default m\n" +
+    "  --num-points <n>           Points per path in numpoints mode, default 10\n" +
+    "  --pad-start <n>            Distance before the first point, in model units\n" +
+    "  --pad-end <n>              Distance after the last point, in model units\n" +
+    "  --reverse                  Traverse paths in reverse\n" +
+    "  --stitch <tolerance>       Join paths that meet end to end, in path units\n" +
+    "  --separate                 Write one LXF per path plus a parent LXF\n" +
+    "  --no-parent                With --separate, skip the parent LXF\n" +
+    "  --compact                  Write LXF without indentation\n" +
+    "  --precision <n>            Decimal places for coordinates, 0 for full precision\n" +
+    "  --strips                   Write straight, evenly spaced runs as strips\n" +
+    "  --threads <n>              Number of files converted at once, default is one per processor\n";
+
+  private File outputFolder = null;
+  private DistanceUnits pathUnits = DistanceUnits.INCHES;
+  private DistanceUnits modelUnits = DistanceUnits.INCHES;
+  private PathFixture.PointMode pointMode = PathFixture.PointMode.SPACING;
+  private double spacing = 1;
+  private DistanceUnits spacingUnits = DistanceUnits.INCHES;
+  private double density = 60;
+  private DistanceUnits densityUnits = DistanceUnits.METERS;
+  private int numPoints = 10;
+  private double padStart = 0;
+  private double padEnd = 0;
+  private boolean reversePath = false;
+  private double stitchTolerance = -1;
+  private boolean separate = false;
+  private boolean parentFixture = true;
+  private boolean compact = false;
+  private int precision = 0;
+  private boolean strips = false;
+  private int numThreads = Runtime.getRuntime().availableProcessors();
+
+  private final List<File> inputs = new ArrayList<>();
+
+  /**
+   * Outcome of converting one SVG file
+   */
+  private record Conversion(File svg, int numFixtures, int numPoints, File output) {}
+
+  private SvgConvert(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      final String arg = args[i];
+      if (!arg.startsWith("--")) {
+        this.inputs.add(new File(arg));
+        continue;
+      }
+      switch (arg) {
+        case "--reverse" -> this.reversePath = true;
+        case "--separate" -> this.separate = true;
+        case "--no-parent" -> this.parentFixture = false;
+        case "--compact" -> this.compact = true;
+        case "--strips" -> this.strips = true;
+        default -> {
+          if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + arg);
+          }
+          final String value = args[++i];
+          switch (arg) {
+            case "--out" -> this.outputFolder = new File(value);
+            case "--path-units" -> this.pathUnits = parseUnits(value);
+            case "--model-units" -> this.modelUnits = parseUnits(value);
+            case "--mode" -> this.pointMode = PathFixture.PointMode.valueOf(value.toUpperCase(Locale.ROOT));
+            case "--spacing" -> this.spacing = Double.parseDouble(value);
+            case "--spacing-units" -> this.spacingUnits = parseUnits(value);
+            case "--density" -> this.density = Double.parseDouble(value);
+            case "--density-units" -> this.densityUnits = parseUnits(value);
+            case "--num-points" -> this.numPoints = Integer.parseInt(value);
+            case "--pad-start" -> this.padStart = Double.parseDouble(value);
+            case "--pad-end" -> this.padEnd = Double.parseDouble(value);
+            case "--stitch" -> this.stitchTolerance = Double.parseDouble(value);
+            case "--precision" -> this.precision = Integer.parseInt(value);
+            case "--threads" -> this.numThreads = Math.max(1, Integer.parseInt(value));
+            default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+          }
+        }
+      }
+    }
+    if (this.inputs.isEmpty()) {
+      throw new IllegalArgumentException("No SVG files given");
+    }
+    if (this.numPoints < 1 || this.numPoints > PathFixture.MAX_POINTS) {
+      throw new IllegalArgumentException("--num-points must be between 1 and " + PathFixture.MAX_POINTS);
+    }
+  }
+
+  /**
+   * Units by name or abbreviation, for example "mm" or "millimeters"
+   */
+  private static DistanceUnits parseUnits(String value) {
+    for (DistanceUnits units : DistanceUnits.values()) {
+      if (units.abbrev.equalsIgnoreCase(value) ||
+        units.name.equalsIgnoreCase(value) ||
+        units.singular.equalsIgnoreCase(value)) {
+        return units;
+      }
+    }
+    throw new IllegalArgumentException("Unknown units: " + value);
+  }
+
+  public static void main(String[] args) throws Exception {
+    final SvgConvert convert;
+    try {
+      convert = new SvgConvert(args);
+    } catch (IllegalArgumentException iax) {
+      System.err.println(iax.getMessage());
+      System.err.print(USAGE);
+      System.exit(2);
+      return;
+    }
+    final boolean passed = convert.run();
+    System.exit(passed ? 0 : 1);
+  }
+
+  /**
+   * SVG files from the inputs, expanding folders to the SVG files they contain
+   */
+  private List<File> findSvgFiles() {
+    final List<File> svgs = new ArrayList<>();
+    for (File input : this.inputs) {
+      if (input.isDirectory()) {
+        final File[] files = input.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".svg"));
+        if (files != null) {
+          Arrays.sort(files);
+          svgs.addAll(Arrays.asList(files));
+        }
+      } else {
+        svgs.add(input);
+      }
+    }
+    return svgs;
+  }
+
+  private boolean run() throws InterruptedException {
+    final List<File> svgs = findSvgFiles();
+    if (svgs.isEmpty()) {
+      System.err.println("No SVG files found");
+      return false;
+    }
+    if (this.outputFolder != null && !this.outputFolder.isDirectory() && !this.outputFolder.mkdirs()) {
+      System.err.println("Could not create output folder " + this.outputFolder);
+      return false;
+    }
+
+    // Fixtures are registered with their LX instance, which is not thread safe.
+    // Each worker borrows its own headless LX for the duration of one file.
+    final int numThreads = Math.min(svgs.size(), this.numThreads);
+    final BlockingQueue<LX> instances = new ArrayBlockingQueue<>(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      instances.add(new LX());
+    }
+    if (!instances.peek().permissions.canSave()) {
+      System.err.println("Saving fixture files is not permitted by the current Chromatik license");
+      disposeAll(instances);
+      return false;
+    }
+
+    final long start = System.nanoTime();
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+      Thread thread = new Thread(runnable, "SVG Convert");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final List<Future<Conversion>> futures = new ArrayList<>(svgs.size());
+    for (File svg : svgs) {
+      futures.add(executor.submit(() -> {
+        final LX lx = instances.take();
+        try {
+          return convert(lx, svg);
+        } finally {
+          instances.add(lx);
+        }
+      }));
+    }
+    executor.shutdown();
+
+    int numConverted = 0;
+    int numFixtures = 0;
+    long numPoints = 0;
+    final List<String> failures = new ArrayList<>();
+    for (int i = 0; i < svgs.size(); i++) {
+      try {
+        final Conversion conversion = futures.get(i).get();
+        System.out.printf(Locale.ROOT, "%s: %d fixtures, %d points -> %s%n",
+          conversion.svg.getName(), conversion.numFixtures, conversion.numPoints, conversion.output);
+        ++numConverted;
+        numFixtures += conversion.numFixtures;
+        numPoints += conversion.numPoints;
+      } catch (ExecutionException x) {
+        failures.add(svgs.get(i) + ": " + x.getCause().getMessage());
+      }
+    }
+    disposeAll(instances);
+
+    System.out.printf(Locale.ROOT, "Converted %d of %d SVG files, %d fixtures, %d points in %.1f ms%n",
+      numConverted, svgs.size(), numFixtures, numPoints, (System.nanoTime() - start) / 1e6);
+    if (!failures.isEmpty()) {
+      System.err.println("Failed:\n" + String.join("\n", failures));
+      return false;
+    }
+    return true;
+  }
+
+  private static void disposeAll(BlockingQueue<LX> instances) {
+    for (LX lx : instances) {
+      lx.dispose();
+    }
+  }
+
+  /**
+   * Import one SVG into path fixtures on the given LX, snapshot them and write LXF
+   */
+  private Conversion convert(LX lx, File svg) throws Exception {
+    final List<PathFixture.ParsedPath> paths = ParsedSvg.read(svg, this.stitchTolerance).paths;
+
+    final String exportName = PathFixture.removeExtension(svg.getName());
+    final List<PathFixture> fixtures = new ArrayList<>(paths.size());
+    final List<PathExport> exports = new ArrayList<>(paths.size());
+    try {
+      int iPath = 0;
+      for (PathFixture.ParsedPath path : paths) {
+        final PathFixture fixture = new PathFixture(lx, path);
+        fixture.label.setValue(exportName + " " + fixture.label.getString() + " " + iPath++);
+        fixture.suspendRegeneration();
+        try {
+          applySettings(fixture);
+        } finally {
+          fixture.resumeRegeneration();
+        }
+        lx.structure.addFixture(fixture);
+        // Only registered fixtures are removed afterwards
+        fixtures.add(fixture);
+        exports.add(fixture.snapshot());
+      }
+    } finally {
+      for (int i = fixtures.size() - 1; i >= 0; i--) {
+        lx.structure.removeFixture(fixtures.get(i));
+      }
+    }
+
+    int numPoints = 0;
+    for (PathExport export : exports) {
+      numPoints += export.numPoints();
+    }
+    return new Conversion(svg, exports.size(), numPoints, write(svg, exportName, exports));
+  }
+
+  private void applySettings(PathFixture fixture) {
+    fixture.pathUnits.setValue(this.pathUnits);
+    fixture.modelUnits.setValue(this.modelUnits);
+    fixture.pointMode.setValue(this.pointMode);
+    fixture.spacing.setValue(this.spacing);
+    fixture.spacingUnits.setValue(this.spacingUnits);
+    fixture.density.setValue(this.density);
+    fixture.densityUnits.setValue(this.densityUnits);
+    fixture.numPoints.setValue(this.numPoints);
+    fixture.padStart.setValue(this.padStart);
+    fixture.padEnd.setValue(this.padEnd);
+    fixture.reversePath.setValue(this.reversePath);
+  }
+
+  /**
+   * @return The combined or parent LXF file, or the output folder if there is neither
+   */
+  private File write(File svg, String exportName, List<PathExport> exports) throws IOException {
+    final File folder = (this.outputFolder != null) ? this.outputFolder : svg.getAbsoluteFile().getParentFile();
+    final LxfWriter.Options options = new LxfWriter.Options(this.compact, this.precision, this.strips);
+    final File file = new File(folder, exportName + ".lxf");
+
+    if (!this.separate) {
+      LxfWriter.writeCombinedFile(file, exportName, exports, options);
+      return file;
+    }
+
+    final List<String> childFixtureNames = new ArrayList<>(exports.size());
+    for (PathExport export : exports) {
+      LxfWriter.writeFixtureFile(new File(folder, export.label + ".lxf"), export, options);
+      childFixtureNames.add(export.label);
+    }
+    if (this.parentFixture && !childFixtureNames.isEmpty()) {
+      LxfWriter.writeParentFile(file, exportName, childFixtureNames);
+      return file;
+    }
+    return folder;
+  }
+}
@@ -6,29 +6,35 @@
 
 package studio.jkb.svg;
 
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.stream.JsonWriter;
 import heronarts.lx.LX;
 import heronarts.lx.LXComponent;
 import heronarts.lx.parameter.BooleanParameter;
+import heronarts.lx.parameter.BoundedParameter;
+import heronarts.lx.parameter.DiscreteParameter;
+import heronarts.lx.parameter.EnumParameter;
+import heronarts.lx.parameter.LXParameter;
 import heronarts.lx.parameter.LXParameterListener;
 import heronarts.lx.parameter.MutableParameter;
 import heronarts.lx.parameter.StringParameter;
 import heronarts.lx.structure.LXFixture;
 import heronarts.lx.structure.LXStructure;
 import heronarts.lx.utils.LXUtils;
+import studio.jkb.Format;
 import studio.jkb.parameter.SumParameter;
 import studio.jkb.parameter.SyncParameter;
 import studio.jkb.structure.JsonKeys;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Component that imports SVG files, creates fixtures from SVG paths, and provides
@@ -46,6 +52,15 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
     new BooleanParameter("Clear on Import", true)
       .setDescription("Whether to clear previously imported SVG Path fixtures when a new SVG file is imported");
 
+  public final BooleanParameter stitchPaths =
+    new BooleanParameter("Stitch Paths", false)
+      .setDescription("Whether paths that meet end to end are joined into a single fixture on import");
+
+  public final BoundedParameter stitchTolerance =
+    new BoundedParameter("Stitch Tolerance", 0.01, 0, 10)
+      .setDescription("Maximum distance between path endpoints to be stitched together, in SVG path units")
+      .setFormatter(Format.DECIMAL_CLEAN);
+
   public final MutableParameter numPaths =
     new MutableParameter("NumPaths", 0)
       .setDescription("Number of paths found in the SVG file, read-only");
@@ -54,11 +69,72 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
     new MutableParameter("NumForExport", 0)
       .setDescription("Number of path fixtures ready for export to LXF, read-only");
 
+  public final BooleanParameter exporting =
+    new BooleanParameter("Exporting", false)
+      .setDescription("Whether Export All is running in the background, read-only");
+
+  public final MutableParameter exportProgress =
+    new MutableParameter("Export Progress", 0)
+      .setDescription("Number of files completed by the running Export All, read-only");
+
+  public final MutableParameter exportTotal =
+    new MutableParameter("Export Total", 0)
+      .setDescription("Number of files to be completed by the running Export All, read-only");
+
   public final BooleanParameter exportParentFixture =
     new BooleanParameter("Export Parent Fixture", true)
       .setDescription("Whether Export All creates a parent fixture containing all the path fixtures");
 
-  private final List<PathFixture> fixtures = new ArrayList<>();
+  public final BooleanParameter exportSingleFile =
+    new BooleanParameter("Single File", false)
+      .setDescription("Whether Export All writes one self-contained LXF file with every path fixture inline, instead of one file per fixture plus a parent");
+
+  public final BooleanParameter exportCompact =
+    new BooleanParameter("Compact LXF", false)
+      .setDescription("Whether exported LXF files round coordinates to Precision and leave out zero and default values");
+
+  public final DiscreteParameter exportPrecision =
+    new DiscreteParameter("Precision", 3, 0, 10)
+      .setUnits(LXParameter.Units.INTEGER)
+      .setDescription("Number of decimal places for point coordinates in compact LXF files");
+
+  public final BooleanParameter exportStrips =
+    new BooleanParameter("Export Strips", false)
+      .setDescription("Whether straight, evenly spaced runs of points are exported as LXF strip components instead of point lists");
+
+  public final BooleanParameter exportSkipUnchanged =
+    new BooleanParameter("Skip Unchanged", true)
+      .setDescription("Whether Export All skips rewriting LXF files whose content has not changed since the last export");
+
+  public final BooleanParameter exportRemoveStale =
+    new BooleanParameter("Remove Stale Files", false)
+      .setDescription("Whether Export All deletes LXF files it previously exported for fixtures that no longer exist");
+
+  public final BooleanParameter allocateSpan =
+    new BooleanParameter("Allow Span", false)
+      .setDescription("Whether Allocate Outputs may split fixtures across universe boundaries");
+
+  public final BooleanParameter allocateRound =
+    new BooleanParameter("Round to Universe", false)
+      .setDescription("Whether Allocate Outputs adjusts Num Points by up to 10% so fixtures fill whole universes");
+
+  public final DiscreteParameter allocateStartUniverse =
+    new DiscreteParameter("Start Universe", 0, 0, 32768)
+      .setUnits(LXParameter.Units.INTEGER)
+      .setDescription("First universe used on each host by Allocate Outputs, sACN hosts start at 1 or higher");
+
+  public final EnumParameter<PointCloudWriter.Format> pointCloudFormat =
+    new EnumParameter<PointCloudWriter.Format>("Point Cloud Format", PointCloudWriter.Format.BINARY)
+      .setDescription("File format for point cloud export of all fixtures");
+
+  public final BooleanParameter showPreview =
+    new BooleanParameter("Show Preview", false)
+      .setDescription("Whether the imported paths and their points are drawn in the SVG Import section");
+
+  private final Set<PathFixture> fixtures = new LinkedHashSet<>();
+
+  public final PathPreview preview = new PathPreview(this.fixtures);
+
   public final SyncParameter syncPathUnits;
   public final SyncParameter syncModelUnits;
   public final SyncParameter syncPointMode;
@@ -71,20 +147,41 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
   public final SyncParameter syncPadStart;
   public final SyncParameter syncPadEnd;
 
+  private final List<SyncParameter> syncParameters;
+  private int transactionDepth = 0;
+
   public final SumParameter totalPoints =
     new SumParameter("Total Points")
       .setDescription("Total number of points");
 
+  public final OutputEstimator outputEstimate;
+
+  public final ImportDiagnostics diagnostics;
+
+  public final PathList pathList;
+
+  private final PathPreParse preParse;
+
+  /**
+   * Number of active fixtures, updated incrementally. Resynced with a full count
+   * every RECOMPUTE_INTERVAL updates.
+   */
+  private int numActive = 0;
+  private int numActiveUpdates = 0;
+  private static final int RECOMPUTE_INTERVAL = 1000;
+
   private final LXParameterListener deactivateListener = (p) -> {
-    refreshNumForExport();
     // Add/Remove child size from points sum
     // TODO: handle this in the SumParameter
     PathFixture fixture = (PathFixture)p.getParent();
     if (((BooleanParameter)p).isOn()) {
-      this.totalPoints.removeChildParameter(fixture.size);
+      if (this.totalPoints.removeChildParameter(fixture.size)) {
+        changeNumForExport(-1);
+      }
     } else {
       if (!this.totalPoints.hasChildParameter(fixture.size)) {
         this.totalPoints.addChildParameter(fixture.size);
+        changeNumForExport(1);
       }
     }
   };
@@ -92,8 +189,23 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
   public SvgImport(LX lx) {
     super(lx);
     addParameter("clearExistingOnImport", this.clearExistingOnImport);
+    addParameter("stitchPaths", this.stitchPaths);
+    addParameter("stitchTolerance", this.stitchTolerance);
     addParameter("exportParentFixture", this.exportParentFixture);
+    addParameter("exportSingleFile", this.exportSingleFile);
+    addParameter("exportCompact", this.exportCompact);
+    addParameter("exportPrecision", this.exportPrecision);
+    addParameter("exportStrips", this.exportStrips);
+    addParameter("exportSkipUnchanged", this.exportSkipUnchanged);
+    addParameter("exportRemoveStale", this.exportRemoveStale);
+    addParameter("allocateSpan", this.allocateSpan);
+    addParameter("allocateRound", this.allocateRound);
+    addParameter("allocateStartUniverse", this.allocateStartUniverse);
+    addParameter("pointCloudFormat", this.pointCloudFormat);
+    addParameter("showPreview", this.showPreview);
     this.lx.structure.addListener(this);
+    this.lx.engine.addLoopTask(this.preview);
+    this.preParse = new PathPreParse(lx);
 
     addChild("syncPathUnits",
       this.syncPathUnits = new SyncParameter(lx, PathFixture.newPathUnits()));
@@ -117,6 +229,69 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
       this.syncPadStart = new SyncParameter(lx, PathFixture.newPadStart()));
     addChild("syncPadEnd",
       this.syncPadEnd = new SyncParameter(lx, PathFixture.newPadEnd()));
+
+    addChild("outputEstimate", this.outputEstimate = new OutputEstimator(lx));
+    addChild("diagnostics", this.diagnostics = new ImportDiagnostics(lx));
+    addChild("pathList", this.pathList = new PathList(lx));
+    this.lx.engine.addLoopTask(this.pathList);
+
+    this.syncParameters = List.of(
+      this.syncPathUnits,
+      this.syncModelUnits,
+      this.syncPointMode,
+      this.syncSpacing,
+      this.syncSpacingUnits,
+      this.syncDensity,
+      this.syncDensityUnits,
+      this.syncNumPoints,
+      this.syncReversePath,
+      this.syncPadStart,
+      this.syncPadEnd
+    );
+  }
+
+  /**
+   * Begin a bulk edit of the global parameters.  Changes are pushed to the path fixtures
+   * on commitTransaction() and each fixture regenerates its points only once.
+   * Calls may be nested.
+   */
+  public void beginTransaction() {
+    if (this.transactionDepth++ == 0) {
+      for (PathFixture fixture : this.fixtures) {
+        fixture.suspendRegeneration();
+      }
+    }
+    for (SyncParameter syncParameter : this.syncParameters) {
+      syncParameter.beginTransaction();
+    }
+  }
+
+  public void commitTransaction() {
+    if (this.transactionDepth == 0) {
+      throw new IllegalStateException("No transaction in progress on SvgImport");
+    }
+    final long start = System.nanoTime();
+    for (SyncParameter syncParameter : this.syncParameters) {
+      syncParameter.commitTransaction();
+    }
+    if (--this.transactionDepth == 0) {
+      for (PathFixture fixture : this.fixtures) {
+        fixture.resumeRegeneration();
+      }
+      this.diagnostics.sync.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Run a bulk edit of the global parameters as a single transaction
+   */
+  public void transaction(Runnable edit) {
+    beginTransaction();
+    try {
+      edit.run();
+    } finally {
+      commitTransaction();
+    }
   }
 
   private void addFixtures(Collection<PathFixture> fixtures) {
@@ -127,11 +302,18 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
 
   private void addFixture(PathFixture fixture) {
     this.fixtures.add(fixture);
+    this.preview.fixturesChanged();
+    this.pathList.addFixture(fixture);
+    if (this.transactionDepth > 0) {
+      fixture.suspendRegeneration();
+    }
     fixture.deactivate.addListener(this.deactivateListener);
     this.lx.structure.addFixture(fixture);
-    refreshNumForExport();
 
-    this.totalPoints.addChildParameter(fixture.size);
+    if (!fixture.deactivate.isOn()) {
+      this.totalPoints.addChildParameter(fixture.size);
+      changeNumForExport(1);
+    }
 
     this.syncModelUnits.addChildParameter(fixture.modelUnits);
     this.syncPathUnits.addChildParameter(fixture.pathUnits);
@@ -144,6 +326,8 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
     this.syncReversePath.addChildParameter(fixture.reversePath);
     this.syncPadStart.addChildParameter(fixture.padStart);
     this.syncPadEnd.addChildParameter(fixture.padEnd);
+
+    this.outputEstimate.addFixture(fixture);
   }
 
   private void removeFixtures(Collection<PathFixture> fixtures) {
@@ -165,10 +349,12 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
 
   @Override
   public void fixtureRemoved(LXFixture fixture) {
-    if (fixture instanceof PathFixture pathFixture && this.fixtures.contains(fixture)) {
+    if (fixture instanceof PathFixture pathFixture && this.fixtures.remove(pathFixture)) {
+      this.preview.fixturesChanged();
+      this.pathList.removeFixture(pathFixture);
       pathFixture.deactivate.removeListener(this.deactivateListener);
-      if (this.totalPoints.hasChildParameter(pathFixture.size)) {
-        this.totalPoints.removeChildParameter(pathFixture.size);
+      if (this.totalPoints.removeChildParameter(pathFixture.size)) {
+        changeNumForExport(-1);
       }
       this.syncModelUnits.removeChildParameter(pathFixture.modelUnits);
       this.syncPathUnits.removeChildParameter(pathFixture.pathUnits);
@@ -181,111 +367,370 @@ public class SvgImport extends LXComponent implements LXStructure.Listener, Json
       this.syncReversePath.removeChildParameter(pathFixture.reversePath);
       this.syncPadStart.removeChildParameter(pathFixture.padStart);
       this.syncPadEnd.removeChildParameter(pathFixture.padEnd);
-      this.fixtures.remove(pathFixture);
+      this.outputEstimate.removeFixture(pathFixture);
+    }
+  }
+
+  private void changeNumForExport(int delta) {
+    if (++this.numActiveUpdates >= RECOMPUTE_INTERVAL) {
       refreshNumForExport();
+    } else {
+      this.numActive += delta;
+      this.numForExport.setValue(this.numActive);
     }
   }
 
+  /**
+   * Full recount of active fixtures
+   */
   private void refreshNumForExport() {
-    this.numForExport.setValue(
-      this.fixtures.stream()
-        .filter(item -> !item.deactivate.isOn())
-        .count()
-    );
+    this.numActiveUpdates = 0;
+    this.numActive = (int) this.fixtures.stream()
+      .filter(item -> !item.deactivate.isOn())
+      .count();
+    this.numForExport.setValue(this.numActive);
+  }
+
+  /**
+   * Remove all fixtures created by this component
+   */
+  public void clearFixtures() {
+    List<PathFixture> existing = new ArrayList<>(this.fixtures);
+    for (int i = existing.size() - 1; i >= 0; i--) {
+      removeFixture(existing.get(i));
+    }
   }
 
   public void importSvg(File file) {
+    importFiles(List.of(file), file.getName(), false);
+  }
+
+  /**
+   * Import an SVG file on the calling thread, for headless use where there is no
+   * running engine to hand fixture creation to.  Must not be called from a UI thread
+   * while the engine is running.
+   */
+  void importSvgSync(File file) {
+    readFiles(List.of(file), file.getName(), false).run();
+  }
+
+  /**
+   * Import every SVG file in a folder.  Files are read and parsed concurrently in the
+   * background, then all fixtures are registered in a single transaction.  Fixture
+   * labels are prefixed with the file name and tagged with it, so each file's fixtures
+   * can be told apart.
+   */
+  public void importSvgFolder(File folder) {
+    final File[] files = folder.listFiles((dir, name) -> name.toLowerCase(Locale.ROOT).endsWith(".svg"));
+    if (files == null || files.length == 0) {
+      LX.error("No SVG files found in " + folder);
+      return;
+    }
+    Arrays.sort(files);
+    importFiles(Arrays.asList(files), folder.getName(), true);
+  }
+
+  /**
+   * Files are read, stitched and parsed on a background thread, then fixtures are
+   * created on the engine thread.
+   *
+   * @param name Value for the fileName parameter, also the default export name
+   * @param namespaced Whether labels and tags identify the source file
+   */
+  private void importFiles(List<File> files, String name, boolean namespaced) {
+    Thread thread = new Thread(() -> {
+      this.lx.engine.addTask(readFiles(files, name, namespaced));
+    }, "SVG Import Read");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Read, stitch and parse files on the calling thread
+   *
+   * @return Task that creates the fixtures, to run on the engine thread
+   */
+  private Runnable readFiles(List<File> files, String name, boolean namespaced) {
+    final double stitchTolerance = this.stitchPaths.isOn() ? this.stitchTolerance.getValue() : -1;
+    final long start = System.nanoTime();
+    final List<ParsedSvg> parsed = ParsedSvg.readAll(files, stitchTolerance);
+    final long elapsedNanos = System.nanoTime() - start;
+    return () -> createFixtures(parsed, elapsedNanos, files.size(), name, namespaced, stitchTolerance >= 0);
+  }
+
+  /**
+   * Create fixtures for parsed SVG files.  Must be called on the engine thread.
+   *
+   * @param readNanos Elapsed time reading, stitching and parsing the files
+   */
+  private void createFixtures(List<ParsedSvg> parsed, long readNanos, int numFiles, String name, boolean namespaced, boolean stitched) {
     if (this.clearExistingOnImport.getValueb()) {
-      for (int i = this.fixtures.size() - 1; i >= 0; i--) {
-        removeFixture(this.fixtures.get(i));
-      }
+      clearFixtures();
     }
     this.numPaths.reset();
-    List<String> paths;
-
-    // Attempt file read
-    try {
-      paths = SvgUtils.loadSVGpaths(file);
-      this.fileName.setValue(file.getName());
-      this.numPaths.setValue(paths.size());
-    } catch (Exception x) {
-      LX.error(x, "Error loading SVG: ");
+    if (parsed.isEmpty()) {
       return;
     }
 
-    // Create fixtures
-    int iPath = 0;
-    for (String path : paths) {
-      PathFixture fixture = new PathFixture(this.lx, path);
-      fixture.label.setValue(fixture.label.getString() + " " + iPath++);
-      addFixture(fixture);
+    int numFound = 0;
+    int numStitched = 0;
+    for (ParsedSvg svg : parsed) {
+      numFound += svg.numFound;
+      numStitched += svg.paths.size();
+    }
+    recordRead(parsed, readNanos, stitched);
+    this.fileName.setValue(name);
+    this.numPaths.setValue(numFound);
+    if (stitched) {
+      LX.log("Stitched " + numFound + " SVG paths into " + numStitched);
+    }
+
+    // Create fixtures, syncing and regenerating them once for the whole batch
+    final long start = System.nanoTime();
+    final List<PathFixture> created = new ArrayList<>(numStitched);
+    transaction(() -> {
+      for (ParsedSvg svg : parsed) {
+        final String fileLabel = PathFixture.removeExtension(svg.file.getName());
+        final String tag = namespaced ? toTag(fileLabel) : null;
+        int iPath = 0;
+        for (PathFixture.ParsedPath path : svg.paths) {
+          PathFixture fixture = new PathFixture(this.lx, path);
+          fixture.label.setValue((namespaced ? fileLabel + " " : "") + fixture.label.getString() + " " + iPath++);
+          if (tag != null) {
+            fixture.tags.setValue(tag);
+          }
+          addFixture(fixture);
+          created.add(fixture);
+        }
+      }
+    });
+    recordImport(created, System.nanoTime() - start);
+    if (namespaced) {
+      LX.log("Imported " + created.size() + " paths from " + parsed.size() + " of " + numFiles + " SVG files");
+    }
+  }
+
+  /**
+   * Record diagnostics for reading files.  Files read concurrently overlap, so the
+   * elapsed time is split between the read, stitch and parse stages by their share
+   * of the work done on all threads.
+   */
+  private void recordRead(List<ParsedSvg> parsed, long elapsedNanos, boolean stitched) {
+    long readNanos = 0;
+    long stitchNanos = 0;
+    long parseNanos = 0;
+    for (ParsedSvg svg : parsed) {
+      readNanos += svg.readNanos;
+      stitchNanos += svg.stitchNanos;
+      parseNanos += svg.parseNanos;
+    }
+    final double scale = elapsedNanos / (double) Math.max(1, readNanos + stitchNanos + parseNanos);
+    this.diagnostics.xmlRead.record((long) (readNanos * scale));
+    if (stitched) {
+      this.diagnostics.stitch.record((long) (stitchNanos * scale));
     }
+    this.diagnostics.parse.record((long) (parseNanos * scale));
   }
 
+  /**
+   * Fixture tag for a file name, keeping only characters valid in tags
+   */
+  private static String toTag(String fileLabel) {
+    final String tag = fileLabel.replaceAll("[^A-Za-z0-9_]+", "_");
+    return Character.isDigit(tag.charAt(0)) ? "svg_" + tag : tag;
+  }
+
+  /**
+   * Record diagnostics for newly created fixtures.  Time not spent rebuilding
+   * coordinates or computing points is counted as structure registration.
+   */
+  private void recordImport(List<PathFixture> created, long totalNanos) {
+    long rebuildNanos = 0;
+    long geometryNanos = 0;
+    int numVertices = 0;
+    int numPoints = 0;
+    for (PathFixture fixture : created) {
+      rebuildNanos += fixture.getRebuildNanos();
+      geometryNanos += fixture.getGeometryNanos();
+      numVertices += fixture.getNumVertices();
+      numPoints += fixture.size.getValuei();
+    }
+    this.diagnostics.rebuild.record(rebuildNanos);
+    this.diagnostics.regeneration.record(geometryNanos);
+    this.diagnostics.structure.record(Math.max(0, totalNanos - rebuildNanos - geometryNanos));
+    this.diagnostics.numPaths.setValue(created.size());
+    this.diagnostics.numVertices.setValue(numVertices);
+    this.diagnostics.numPoints.setValue(numPoints);
+  }
+
+  /**
+   * Export All runs in the background: fixtures are snapshotted on the engine thread
+   * and files are written on worker threads.
+   */
+  private ExportJob exportJob = null;
+
+  /**
+   * Number of files completed by a background export, shared with the export threads
+   */
+  private final AtomicInteger exportCompleted = new AtomicInteger(0);
+  private final AtomicBoolean exportProgressPending = new AtomicBoolean(false);
+
+  /**
+   * Start exporting all active fixtures.  May be called from the UI thread, the
+   * snapshot is taken on the engine thread.
+   */
   public void exportAll() {
-    // Currently overwrites existing files
+    this.lx.engine.addTask(this::startExport);
+  }
+
+  private void startExport() {
+    if (!this.lx.permissions.canSave()) {
+      LX.error(Math.random() > .5 ? "Savings Await - Sign Up and Start Saving!" : "Sign Up & Save More Today!");
+      return;
+    }
+    if (this.exportJob != null) {
+      LX.warning("Export All is already running");
+      return;
+    }
+
+    // Snapshot active fixtures on the engine thread, so edits made during the
+    // export can not change what is written
+    final List<PathExport> exports = snapshotActive();
+    if (exports.isEmpty()) {
+      return;
+    }
+
+    final File folder = this.lx.getMediaFolder(LX.Media.FIXTURES);
+    this.exportJob = new ExportJob(this, folder, getExportName(), exports, new ExportJob.Listener() {
+      @Override
+      public void onExportProgress(int numCompleted, int numFiles) {
+        exportCompleted.set(numCompleted);
+        // Coalesce progress updates into at most one pending engine task
+        if (exportProgressPending.compareAndSet(false, true)) {
+          lx.engine.addTask(() -> {
+            exportProgressPending.set(false);
+            exportProgress.setValue(exportCompleted.get());
+          });
+        }
+      }
+
+      @Override
+      public void onExportFinished() {
+        lx.engine.addTask(() -> {
+          exportJob = null;
+          exportProgress.setValue(exportCompleted.get());
+          exporting.setValue(false);
+        });
+      }
+    });
+
+    this.exportCompleted.set(0);
+    this.exportProgress.setValue(0);
+    this.exportTotal.setValue(this.exportJob.getNumFiles());
+    this.exporting.setValue(true);
+
+    Thread thread = new Thread(this.exportJob, "SVG Import Export");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Assign universes and channels to all active Art-Net and sACN fixtures, packing
+   * each host's fixtures into as few universes as possible
+   */
+  public void allocateOutputs() {
+    this.lx.engine.addTask(() -> {
+      final OutputAllocator.Options options = new OutputAllocator.Options(
+        this.allocateSpan.isOn(),
+        this.allocateRound.isOn(),
+        this.allocateStartUniverse.getValuei());
+      final OutputAllocator.Result[] result = new OutputAllocator.Result[1];
+      transaction(() -> {
+        result[0] = OutputAllocator.allocate(this.fixtures, options);
+      });
+      LX.log("Allocated " + result[0].numFixtures + " fixtures to " + result[0].numUniverses +
+        " universes on " + result[0].numHosts + " hosts" +
+        (result[0].numRounded > 0 ? ", rounded " + result[0].numRounded + " fixtures to whole universes" : ""));
+    });
+  }
+
+  /**
+   * Write the points of all active fixtures to one point cloud file in the Fixtures
+   * folder.  The snapshot is taken on the engine thread and the file is written on a
+   * worker thread.
+   */
+  public void exportPointCloud() {
+    this.lx.engine.addTask(() -> {
+      if (!this.lx.permissions.canSave()) {
+        LX.error(Math.random() > .5 ? "Savings Await - Sign Up and Start Saving!" : "Sign Up & Save More Today!");
+        return;
+      }
+      final List<PathExport> exports = snapshotActive();
+      if (exports.isEmpty()) {
+        return;
+      }
+      final PointCloudWriter.Format format = this.pointCloudFormat.getEnum();
+      final File file = new File(this.lx.getMediaFolder(LX.Media.FIXTURES), getExportName() + ".points." + format.extension);
+
+      Thread thread = new Thread(() -> {
+        try {
+          PointCloudWriter.write(file, format, exports);
+          LX.log("Point cloud exported successfully to " + file);
+        } catch (IOException iox) {
+          LX.error(iox, "Exception writing point cloud to " + file);
+        }
+      }, "SVG Import Point Cloud");
+      thread.setDaemon(true);
+      thread.start();
+    });
+  }
 
-    // Export each child fixture
-    List<String> childFixtureNames = new ArrayList<>();
+  /**
+   * Snapshot all active fixtures for export.  Must be called on the engine thread.
+   */
+  List<PathExport> snapshotActive() {
+    final List<PathExport> exports = new ArrayList<>();
     for (PathFixture fixture : this.fixtures) {
       if (!fixture.deactivate.isOn()) {
-        String childName = fixture.exportToDefault();
-        if (!LXUtils.isEmpty(childName)) {
-          childFixtureNames.add(childName);
-        }
+        exports.add(fixture.snapshot());
       }
     }
+    return exports;
+  }
 
-    // Export the parent fixture
-    if (this.exportParentFixture.isOn() && childFixtureNames.size() > 0) {
-      String fileName = !LXUtils.isEmpty(this.fileName.getString())
-        ? PathFixture.removeExtension(this.fileName.getString())
-        : "SVGexport";
-      exportParent(fileName, childFixtureNames);
-    }
+  /**
+   * Base name for exported files, from the imported SVG file name
+   */
+  String getExportName() {
+    return !LXUtils.isEmpty(this.fileName.getString())
+      ? PathFixture.removeExtension(this.fileName.getString())
+      : "SVGexport";
   }
 
-  private void exportParent(String fixtureName, List<String> childFixtureNames) {
-    String filePath = this.lx.getMediaFolder(LX.Media.FIXTURES).toString() + File.separator + fixtureName + ".lxf";
-    File file = new File(filePath);
-
-    JsonObject obj = new JsonObject();
-    obj.addProperty(KEY_LABEL, fixtureName);
-
-    // tags
-    JsonArray tags = new JsonArray();
-    tags.add("SVG");
-    tags.add(fixtureName);
-    obj.add(KEY_TAGS, tags);
-
-    // metadata
-    JsonObject metadata = new JsonObject();
-    metadata.addProperty("generator", "Chromatik, SVG Import Plugin, Version " + SvgImportPlugin.VERSION);
-    obj.add(KEY_METADATA, metadata);
-
-    // components
-    JsonArray components = new JsonArray();
-    obj.add(KEY_COMPONENTS, components);
-
-    // child components
-    for (String childFixtureName : childFixtureNames) {
-      JsonObject component = new JsonObject();
-      components.add(component);
-      component.addProperty("type", childFixtureName);
-    }
+  /**
+   * LXF encoding options from the current export settings
+   */
+  public LxfWriter.Options getExportOptions() {
+    return new LxfWriter.Options(
+      this.exportCompact.isOn(),
+      this.exportPrecision.getValuei(),
+      this.exportStrips.isOn());
+  }
 
-    try (JsonWriter writer = new JsonWriter(new FileWriter(file))) {
-      writer.setIndent("  ");
-      new GsonBuilder().create().toJson(obj, writer);
-      LX.log("Parent fixture exported successfully to " + file);
-    } catch (IOException iox) {
-      LX.error(iox, "Exception writing fixture file to " + file);
+  @Override
+  public void onParameterChanged(LXParameter p) {
+    super.onParameterChanged(p);
+    if (p == this.showPreview) {
+      this.preview.setEnabled(this.showPreview.isOn());
     }
   }
 
   @Override
   public void dispose() {
+    this.lx.engine.removeLoopTask(this.preview);
+    this.lx.engine.removeLoopTask(this.pathList);
     this.lx.structure.removeListener(this);
+    this.preParse.dispose();
     super.dispose();
   }
 
@@ -10,6 +10,7 @@ import heronarts.lx.LX;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
+import studio.jkb.jfr.SvgLoadEvent;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -24,6 +25,8 @@ public class SvgUtils {
    * Read an SVG file and return a list of all path data
    */
   public static List<String> loadSVGpaths(File file) throws Exception {
+    final SvgLoadEvent event = new SvgLoadEvent();
+    event.begin();
     List<String> paths = new ArrayList<>();
 
     // Parse SVG file
@@ -41,6 +44,12 @@ public class SvgUtils {
       paths.add(pathData);
     }
 
+    event.end();
+    if (event.shouldCommit()) {
+      event.file = file.getPath();
+      event.numPaths = paths.size();
+      event.commit();
+    }
     return paths;
   }
 
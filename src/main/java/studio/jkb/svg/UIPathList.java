@@ -0,0 +1,205 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.glx.event.MouseEvent;
+import heronarts.glx.ui.UI;
+import heronarts.glx.ui.UI2dComponent;
+import heronarts.glx.ui.vg.VGraphics;
+import heronarts.lx.LX;
+
+import java.util.Locale;
+
+/**
+ * Table of imported paths that draws only the rows scrolled into view.  Click a column
+ * header to sort by it, click again to reverse.  Click a row to select its fixture.
+ */
+public class UIPathList extends UI2dComponent {
+
+  private static final float HEADER_HEIGHT = 16;
+  private static final float ROW_HEIGHT = 14;
+  private static final float PADDING = 4;
+  private static final float SCROLLBAR_WIDTH = 4;
+
+  private static final float ACTIVE_WIDTH = 12;
+  private static final float LENGTH_WIDTH = 44;
+  private static final float POINTS_WIDTH = 40;
+  private static final float OUTPUT_WIDTH = 80;
+
+  private final LX lx;
+  private final PathList pathList;
+
+  private PathList.Row[] rows;
+  private int firstRow = 0;
+
+  public UIPathList(UI ui, LX lx, PathList pathList, float w, int numVisibleRows) {
+    super(0, 0, w, HEADER_HEIGHT + numVisibleRows * ROW_HEIGHT);
+    this.lx = lx;
+    this.pathList = pathList;
+    this.rows = pathList.getFilteredRows();
+    setBackgroundColor(ui.theme.paneInsetColor);
+    setBorderColor(ui.theme.controlBorderColor);
+    setBorderRounding(4);
+
+    addLoopTask(deltaMs -> {
+      final PathList.Row[] rows = this.pathList.getFilteredRows();
+      if (rows != this.rows) {
+        this.rows = rows;
+        setFirstRow(this.firstRow);
+        redraw();
+      }
+    });
+
+    addListener(pathList.sortColumn, p -> redraw());
+    addListener(pathList.sortDescending, p -> redraw());
+  }
+
+  private int getNumVisibleRows() {
+    return (int) ((getHeight() - HEADER_HEIGHT) / ROW_HEIGHT);
+  }
+
+  private void setFirstRow(int firstRow) {
+    this.firstRow = Math.max(0, Math.min(firstRow, this.rows.length - getNumVisibleRows()));
+  }
+
+  private float getLabelWidth() {
+    return getWidth() - 2 * PADDING - SCROLLBAR_WIDTH - ACTIVE_WIDTH - LENGTH_WIDTH - POINTS_WIDTH - OUTPUT_WIDTH;
+  }
+
+  /**
+   * Column under an x position, in display order
+   */
+  private PathList.Column getColumn(float x) {
+    float right = PADDING + ACTIVE_WIDTH;
+    if (x < right) {
+      return PathList.Column.ACTIVE;
+    }
+    if (x < (right += getLabelWidth())) {
+      return PathList.Column.LABEL;
+    }
+    if (x < (right += LENGTH_WIDTH)) {
+      return PathList.Column.LENGTH;
+    }
+    if (x < right + POINTS_WIDTH) {
+      return PathList.Column.POINTS;
+    }
+    return PathList.Column.OUTPUT;
+  }
+
+  @Override
+  protected void onDraw(UI ui, VGraphics vg) {
+    final float labelWidth = getLabelWidth();
+    final float xLabel = PADDING + ACTIVE_WIDTH;
+    final float xLength = xLabel + labelWidth;
+    final float xPoints = xLength + LENGTH_WIDTH;
+    final float xOutput = xPoints + POINTS_WIDTH;
+
+    // Header
+    vg.fontFace(ui.theme.getControlFont());
+    vg.fillColor(ui.theme.controlTextColor);
+    final PathList.Column sortColumn = this.pathList.sortColumn.getEnum();
+    final String arrow = this.pathList.sortDescending.isOn() ? " v" : " ^";
+    vg.textAlign(VGraphics.Align.LEFT, VGraphics.Align.MIDDLE);
+    vg.beginPath();
+    vg.text(PADDING, HEADER_HEIGHT / 2, sortColumn == PathList.Column.ACTIVE ? "*" : "");
+    vg.text(xLabel, HEADER_HEIGHT / 2, headerText(PathList.Column.LABEL, sortColumn, arrow));
+    vg.text(xOutput, HEADER_HEIGHT / 2, headerText(PathList.Column.OUTPUT, sortColumn, arrow));
+    vg.textAlign(VGraphics.Align.RIGHT, VGraphics.Align.MIDDLE);
+    vg.text(xPoints - PADDING, HEADER_HEIGHT / 2, headerText(PathList.Column.LENGTH, sortColumn, arrow));
+    vg.text(xOutput - PADDING, HEADER_HEIGHT / 2, headerText(PathList.Column.POINTS, sortColumn, arrow));
+    vg.fill();
+
+    vg.beginPath();
+    vg.strokeColor(ui.theme.controlBorderColor);
+    vg.moveTo(0, HEADER_HEIGHT);
+    vg.lineTo(getWidth(), HEADER_HEIGHT);
+    vg.stroke();
+
+    // Visible rows only
+    final PathList.Row[] rows = this.rows;
+    final int numVisible = Math.min(getNumVisibleRows(), rows.length - this.firstRow);
+    for (int i = 0; i < numVisible; i++) {
+      final PathList.View view = rows[this.firstRow + i].getView();
+      final float y = HEADER_HEIGHT + i * ROW_HEIGHT;
+      final float yText = y + ROW_HEIGHT / 2;
+
+      if (view.selected) {
+        vg.beginPath();
+        vg.fillColor(ui.theme.listItemSelectedBackgroundColor);
+        vg.rect(0, y, getWidth() - SCROLLBAR_WIDTH, ROW_HEIGHT);
+        vg.fill();
+      }
+
+      vg.beginPath();
+      vg.fillColor(view.active ? ui.theme.primaryColor : ui.theme.controlDisabledColor);
+      vg.circle(PADDING + ACTIVE_WIDTH / 2 - 2, yText, 3);
+      vg.fill();
+
+      vg.fillColor(view.active ? ui.theme.controlTextColor : ui.theme.controlDisabledColor);
+      vg.beginPath();
+      vg.textAlign(VGraphics.Align.LEFT, VGraphics.Align.MIDDLE);
+      vg.scissor(xLabel, y, labelWidth - PADDING, ROW_HEIGHT);
+      vg.text(xLabel, yText, view.label);
+      vg.scissor(xOutput, y, OUTPUT_WIDTH, ROW_HEIGHT);
+      vg.text(xOutput, yText, view.output);
+      vg.resetScissor();
+      vg.textAlign(VGraphics.Align.RIGHT, VGraphics.Align.MIDDLE);
+      vg.text(xPoints - PADDING, yText, String.format(Locale.ROOT, "%.1f", view.length));
+      vg.text(xOutput - PADDING, yText, Integer.toString(view.numPoints));
+      vg.fill();
+    }
+
+    // Scroll position
+    if (rows.length > getNumVisibleRows()) {
+      final float trackHeight = getHeight() - HEADER_HEIGHT;
+      final float barHeight = Math.max(8, trackHeight * getNumVisibleRows() / rows.length);
+      final float barY = HEADER_HEIGHT + (trackHeight - barHeight) * this.firstRow / (rows.length - getNumVisibleRows());
+      vg.beginPath();
+      vg.fillColor(ui.theme.controlBorderColor);
+      vg.rect(getWidth() - SCROLLBAR_WIDTH, barY, SCROLLBAR_WIDTH, barHeight, 2);
+      vg.fill();
+    }
+  }
+
+  private static String headerText(PathList.Column column, PathList.Column sortColumn, String arrow) {
+    return column == sortColumn ? column.label + arrow : column.label;
+  }
+
+  @Override
+  protected void onMousePressed(MouseEvent mouseEvent, float mx, float my) {
+    if (my < HEADER_HEIGHT) {
+      final PathList.Column column = getColumn(mx);
+      if (column == this.pathList.sortColumn.getEnum()) {
+        this.pathList.sortDescending.toggle();
+      } else {
+        this.pathList.sortColumn.setValue(column);
+        this.pathList.sortDescending.setValue(false);
+      }
+      return;
+    }
+    final int index = this.firstRow + (int) ((my - HEADER_HEIGHT) / ROW_HEIGHT);
+    final PathList.Row[] rows = this.rows;
+    if (index < rows.length) {
+      final PathFixture fixture = rows[index].fixture;
+      final boolean multiple = mouseEvent.isShiftDown();
+      this.lx.engine.addTask(() -> this.lx.structure.selectFixture(fixture, multiple));
+    }
+  }
+
+  @Override
+  protected void onMouseScroll(MouseEvent mouseEvent, float mx, float my, float dx, float dy) {
+    if (this.rows.length <= getNumVisibleRows() || dy == 0) {
+      return;
+    }
+    mouseEvent.consume();
+    final int firstRow = this.firstRow;
+    setFirstRow(this.firstRow + (dy > 0 ? 3 : -3));
+    if (this.firstRow != firstRow) {
+      redraw();
+    }
+  }
+}
@@ -0,0 +1,269 @@
+/**
+ * Copyright 2024- Justin K. Belcher
+ *
+ * @author Justin K. Belcher <justin@jkb.studio>
+ */
+
+package studio.jkb.svg;
+
+import heronarts.glx.event.MouseEvent;
+import heronarts.glx.ui.UI;
+import heronarts.glx.ui.UI2dComponent;
+import heronarts.glx.ui.vg.VGraphics;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Top-down view of the imported paths with their points overlaid.  Deactivated
+ * fixtures are drawn in grey.  Scroll to zoom, drag to pan, double-click to fit.
+ *
+ * Geometry comes from the PathPreview snapshot.  Each fixture's path and points are
+ * decimated to the current zoom level and cached, so a redraw only recomputes fixtures
+ * whose geometry changed or whose cached level no longer matches the zoom.  The
+ * component is only redrawn when the snapshot or the view changes.
+ */
+public class UIPathPreview extends UI2dComponent {
+
+  private static final float MARGIN = 6;
+
+  /**
+   * Minimum screen distance between drawn points, in pixels
+   */
+  private static final float POINT_SPACING = 3;
+  private static final float POINT_SIZE = 2;
+
+  private static final float MAX_ZOOM = 1000;
+
+  /**
+   * Path and points of one fixture, decimated for one zoom level
+   */
+  private static class Lod {
+    private final int level;
+    private final float[] vertices;
+    private final float[] points;
+
+    private Lod(int level, float[] vertices, float[] points) {
+      this.level = level;
+      this.vertices = vertices;
+      this.points = points;
+    }
+  }
+
+  private final PathPreview preview;
+  private PathPreview.Snapshot snapshot;
+  private Map<PathPreview.Entry, Lod> lods = new IdentityHashMap<>();
+
+  private float zoom = 1;
+  private float panX = 0;
+  private float panY = 0;
+
+  // View transform, computed at the start of each draw
+  private float scale;
+  private float centerX;
+  private float centerY;
+
+  public UIPathPreview(UI ui, PathPreview preview, float w, float h) {
+    super(0, 0, w, h);
+    this.preview = preview;
+    this.snapshot = preview.getSnapshot();
+    setBackgroundColor(ui.theme.paneInsetColor);
+    setBorderColor(ui.theme.controlBorderColor);
+    setBorderRounding(4);
+    setDescription("Preview of the imported paths and points. Scroll to zoom, drag to pan, double-click to fit.");
+
+    addLoopTask(deltaMs -> {
+      final PathPreview.Snapshot snapshot = this.preview.getSnapshot();
+      if (snapshot != this.snapshot) {
+        setSnapshot(snapshot);
+        redraw();
+      }
+    });
+  }
+
+  /**
+   * Keep cached levels of detail only for entries that are still current
+   */
+  private void setSnapshot(PathPreview.Snapshot snapshot) {
+    final Map<PathPreview.Entry, Lod> lods = new IdentityHashMap<>();
+    for (PathPreview.Entry entry : snapshot.entries) {
+      final Lod lod = this.lods.get(entry);
+      if (lod != null) {
+        lods.put(entry, lod);
+      }
+    }
+    this.snapshot = snapshot;
+    this.lods = lods;
+  }
+
+  private void updateView() {
+    final PathPreview.Snapshot snapshot = this.snapshot;
+    final float boundsWidth = Math.max(snapshot.xMax - snapshot.xMin, 1e-3f);
+    final float boundsHeight = Math.max(snapshot.yMax - snapshot.yMin, 1e-3f);
+    final float fitScale = Math.min(
+      (getWidth() - 2 * MARGIN) / boundsWidth,
+      (getHeight() - 2 * MARGIN) / boundsHeight);
+    this.scale = fitScale * this.zoom;
+    this.centerX = (snapshot.xMin + snapshot.xMax) / 2 + this.panX;
+    this.centerY = (snapshot.yMin + snapshot.yMax) / 2 + this.panY;
+  }
+
+  private float screenX(float x) {
+    return getWidth() / 2 + (x - this.centerX) * this.scale;
+  }
+
+  private float screenY(float y) {
+    // Model y is up
+    return getHeight() / 2 - (y - this.centerY) * this.scale;
+  }
+
+  @Override
+  protected void onDraw(UI ui, VGraphics vg) {
+    if (this.snapshot.isEmpty()) {
+      vg.fontFace(ui.theme.getControlFont());
+      vg.fillColor(ui.theme.controlDisabledColor);
+      vg.textAlign(VGraphics.Align.CENTER, VGraphics.Align.MIDDLE);
+      vg.beginPath();
+      vg.text(getWidth() / 2, getHeight() / 2, "No paths imported");
+      vg.fill();
+      return;
+    }
+
+    updateView();
+
+    // One pixel in model units, rounded down to a power of two so that zooming
+    // within a factor of two reuses the cached level of detail
+    final int level = (int) Math.floor(Math.log(this.scale) / Math.log(2));
+    final float tolerance = (float) Math.pow(2, -level);
+
+    for (PathPreview.Entry entry : this.snapshot.entries) {
+      final Lod lod = this.lods.get(entry);
+      if (lod == null || lod.level != level) {
+        this.lods.put(entry, new Lod(level,
+          decimate(entry.vertices, tolerance, true),
+          decimate(entry.points, tolerance * POINT_SPACING, false)));
+      }
+    }
+
+    vg.strokeWidth(1);
+    drawPaths(vg, false);
+    vg.strokeColor(ui.theme.controlDisabledColor);
+    vg.stroke();
+    drawPaths(vg, true);
+    vg.strokeColor(ui.theme.primaryColor);
+    vg.stroke();
+
+    drawPoints(vg, false);
+    vg.fillColor(ui.theme.controlDisabledColor);
+    vg.fill();
+    drawPoints(vg, true);
+    vg.fillColor(ui.theme.controlTextColor);
+    vg.fill();
+  }
+
+  private boolean isOnScreen(PathPreview.Entry entry) {
+    return
+      screenX(entry.xMax) >= 0 && screenX(entry.xMin) <= getWidth() &&
+      screenY(entry.yMin) >= 0 && screenY(entry.yMax) <= getHeight();
+  }
+
+  /**
+   * Add the paths of all active or inactive fixtures to a single vector path
+   */
+  private void drawPaths(VGraphics vg, boolean active) {
+    vg.beginPath();
+    for (PathPreview.Entry entry : this.snapshot.entries) {
+      if (entry.active != active || entry.vertices.length < 4 || !isOnScreen(entry)) {
+        continue;
+      }
+      final float[] vertices = this.lods.get(entry).vertices;
+      vg.moveTo(screenX(vertices[0]), screenY(vertices[1]));
+      for (int i = 2; i < vertices.length; i += 2) {
+        vg.lineTo(screenX(vertices[i]), screenY(vertices[i + 1]));
+      }
+    }
+  }
+
+  private void drawPoints(VGraphics vg, boolean active) {
+    final float offset = POINT_SIZE / 2;
+    vg.beginPath();
+    for (PathPreview.Entry entry : this.snapshot.entries) {
+      if (entry.active != active || !isOnScreen(entry)) {
+        continue;
+      }
+      final float[] points = this.lods.get(entry).points;
+      for (int i = 0; i < points.length; i += 2) {
+        vg.rect(screenX(points[i]) - offset, screenY(points[i + 1]) - offset, POINT_SIZE, POINT_SIZE);
+      }
+    }
+  }
+
+  /**
+   * Drop consecutive x,y pairs closer than the tolerance to the last one kept
+   *
+   * @param keepLast Whether the final pair is always kept, so paths end in the right place
+   */
+  static float[] decimate(float[] coords, float tolerance, boolean keepLast) {
+    if (coords.length <= 4) {
+      return coords;
+    }
+    final float tolerance2 = tolerance * tolerance;
+    final float[] kept = new float[coords.length];
+    float lastX = kept[0] = coords[0];
+    float lastY = kept[1] = coords[1];
+    int n = 2;
+    for (int i = 2; i < coords.length; i += 2) {
+      final float dx = coords[i] - lastX;
+      final float dy = coords[i + 1] - lastY;
+      if (dx * dx + dy * dy >= tolerance2) {
+        lastX = kept[n++] = coords[i];
+        lastY = kept[n++] = coords[i + 1];
+      }
+    }
+    if (keepLast && (lastX != coords[coords.length - 2] || lastY != coords[coords.length - 1])) {
+      kept[n++] = coords[coords.length - 2];
+      kept[n++] = coords[coords.length - 1];
+    }
+    return n == kept.length ? kept : Arrays.copyOf(kept, n);
+  }
+
+  @Override
+  protected void onMouseScroll(MouseEvent mouseEvent, float mx, float my, float dx, float dy) {
+    if (this.snapshot.isEmpty() || dy == 0) {
+      return;
+    }
+    mouseEvent.consume();
+    updateView();
+
+    // Zoom about the mouse position
+    final float modelX = this.centerX + (mx - getWidth() / 2) / this.scale;
+    final float modelY = this.centerY - (my - getHeight() / 2) / this.scale;
+    this.zoom = Math.max(1, Math.min(MAX_ZOOM, this.zoom * (dy < 0 ? 1.25f : 0.8f)));
+    updateView();
+    this.panX += modelX - (this.centerX + (mx - getWidth() / 2) / this.scale);
+    this.panY += modelY - (this.centerY - (my - getHeight() / 2) / this.scale);
+    redraw();
+  }
+
+  @Override
+  protected void onMousePressed(MouseEvent mouseEvent, float mx, float my) {
+    if (mouseEvent.isDoubleClick()) {
+      this.zoom = 1;
+      this.panX = 0;
+      this.panY = 0;
+      redraw();
+    }
+  }
+
+  @Override
+  protected void onMouseDragged(MouseEvent mouseEvent, float mx, float my, float dx, float dy) {
+    if (this.snapshot.isEmpty()) {
+      return;
+    }
+    updateView();
+    this.panX -= dx / this.scale;
+    this.panY += dy / this.scale;
+    redraw();
+  }
+}
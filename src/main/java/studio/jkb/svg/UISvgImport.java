@@ -14,22 +14,28 @@ import heronarts.glx.ui.component.UICollapsibleSection;
 import heronarts.glx.ui.component.UIDoubleBox;
 import heronarts.glx.ui.component.UIIntegerBox;
 import heronarts.glx.ui.component.UILabel;
+import heronarts.glx.ui.component.UITextBox;
 import heronarts.glx.ui.vg.VGraphics;
 import heronarts.lx.LX;
 import heronarts.lx.parameter.BooleanParameter;
 import heronarts.lx.parameter.BoundedParameter;
 import heronarts.lx.parameter.DiscreteParameter;
 import heronarts.lx.parameter.EnumParameter;
+import heronarts.lx.parameter.LXParameter;
+import heronarts.lx.parameter.LXParameterListener;
 import heronarts.lx.studio.LXStudio;
 import heronarts.lx.studio.ui.device.UIControls;
 import studio.jkb.parameter.SyncParameter;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 public class UISvgImport extends UICollapsibleSection implements UIControls {
 
   private static final int SECTION_SPACING = 6;
   private static final int ROW_HEIGHT = 16;
+  private static final int PATH_LIST_ROWS = 16;
 
   private final float syncControlWidth;
 
@@ -37,11 +43,42 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
   private final UILabel labelFoundPaths;
   private final UILabel labelNumForExport;
   private final UILabel labelTotalPoints;
+  private final UILabel labelExportProgress;
+  private final UI2dContainer diagnostics;
+  private final UIPathPreview preview;
+  private final UI2dContainer pathList;
+  private final UILabel labelControllers;
+  private final UILabel labelWorstController;
+
+  /**
+   * Rows of the per-controller breakdown, worst controllers first
+   */
+  private static final int CONTROLLER_ROWS = 8;
+  private final List<UILabel> labelControllerLoads = new ArrayList<>();
+  private List<OutputEstimator.ControllerLoad> controllerLoads = null;
 
   private final UI2dComponent numPointsRow;
   private final UI2dComponent spacingRow;
   private final UI2dComponent densityRow;
   private final UI2dComponent padEndRow;
+  private final UI2dComponent stitchToleranceRow;
+  private final UI2dComponent exportPrecisionRow;
+  private final UI2dComponent exportParentButton;
+
+  /**
+   * Text labels that track frequently changing parameters.  Listeners only mark them
+   * dirty, they are rebuilt at most once per UI frame.
+   */
+  private final List<LabelRefresh> labelRefreshes = new ArrayList<>();
+
+  private static class LabelRefresh {
+    private final Runnable refresh;
+    private volatile boolean dirty = false;
+
+    private LabelRefresh(Runnable refresh) {
+      this.refresh = refresh;
+    }
+  }
 
   /**
    * Constructs a new collapsible section
@@ -58,6 +95,12 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
     addChildren(
       newSectionLabel("SETTINGS"),
       newParamButton(component.clearExistingOnImport),
+      newParamButton(component.stitchPaths),
+      this.stitchToleranceRow = newParamRow(component.stitchTolerance,
+        new UIDoubleBox(0, 0, COL_WIDTH, ROW_HEIGHT)
+          .setParameter(component.stitchTolerance)
+          .setNormalizedMouseEditing(false)
+          .setShiftMultiplier(.05f)),
 
       newSectionLabel("IMPORT"),
       newHorizontalContainer(ROW_HEIGHT, 4,
@@ -89,6 +132,24 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
           .setBorderRounding(4)
           .setDescription("Import SVG file")
       ),
+      new UIButton(getContentWidth(), ROW_HEIGHT) {
+        @Override
+        protected void onToggle(boolean on) {
+          if (on) {
+            lx.showOpenFileDialog(
+              "Import SVG Folder",
+              "SVG files",
+              new String[] { "svg" },
+              "",
+              (path) -> { component.importSvgFolder(new File(path).getAbsoluteFile().getParentFile()); }
+            );
+          }
+        }
+      }
+        .setMomentary(true)
+        .setLabel("Import Folder...")
+        .setBorderRounding(2)
+        .setDescription("Import all SVG files in the folder of the selected file, reading them in parallel"),
       this.labelFoundPaths = (UILabel) newInfoLabel().setVisible(false),
 
       newSectionLabel("GLOBAL"),
@@ -108,10 +169,68 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
       newSyncParameterRow(ui, component.syncPadStart),
       this.padEndRow = newSyncParameterRow(ui, component.syncPadEnd),
 
+      newSectionHeader("PREVIEW",
+        new UIButton(0, 0, COL_WIDTH, ROW_HEIGHT)
+          .setParameter(component.showPreview)
+          .setActiveLabel("Hide")
+          .setInactiveLabel("Show")),
+      this.preview = new UIPathPreview(ui, component.preview, getContentWidth(), getContentWidth()),
+
+      newSectionHeader("PATH LIST",
+        new UIButton(0, 0, COL_WIDTH, ROW_HEIGHT)
+          .setParameter(component.pathList.show)
+          .setActiveLabel("Hide")
+          .setInactiveLabel("Show")),
+      this.pathList = UI2dContainer.newVerticalContainer(getContentWidth(), 4,
+        newParamRow(component.pathList.filter,
+          new UITextBox(0, 0, COL_WIDTH, ROW_HEIGHT)
+            .setParameter(component.pathList.filter)),
+        new UIPathList(ui, lx, component.pathList, getContentWidth(), PATH_LIST_ROWS)
+      ),
+
+      newSectionLabel("OUTPUT ESTIMATE"),
+      newParamRow(component.outputEstimate.linkSpeed,
+        new UIDoubleBox(0, 0, COL_WIDTH, ROW_HEIGHT)
+          .setParameter(component.outputEstimate.linkSpeed)
+          .setNormalizedMouseEditing(false)),
+      newParamRow(component.outputEstimate.maxUniverses,
+        new UIIntegerBox(COL_WIDTH, ROW_HEIGHT, component.outputEstimate.maxUniverses)),
+      newParamRow(component.outputEstimate.targetFps,
+        new UIDoubleBox(0, 0, COL_WIDTH, ROW_HEIGHT)
+          .setParameter(component.outputEstimate.targetFps)
+          .setNormalizedMouseEditing(false)),
+      this.labelControllers = newInfoLabel(),
+      this.labelWorstController = newInfoLabel(),
+      newControllerLoads(),
+
+      newSectionLabel("ALLOCATE OUTPUTS"),
+      newParamButton(component.allocateSpan),
+      newParamButton(component.allocateRound),
+      newParamRow(component.allocateStartUniverse,
+        new UIIntegerBox(COL_WIDTH, ROW_HEIGHT, component.allocateStartUniverse)),
+      new UIButton(getContentWidth(), ROW_HEIGHT) {
+        @Override
+        protected void onToggle(boolean on) {
+          if (on) {
+            component.allocateOutputs();
+          }
+        }
+      }
+        .setMomentary(true)
+        .setLabel("Allocate Art-Net/sACN Outputs")
+        .setBorderRounding(2),
+
       newSectionLabel("EXPORT TO LXF"),
       this.labelNumForExport = newInfoLabel(),
       this.labelTotalPoints = newInfoLabel(),
-      newParamButton(component.exportParentFixture),
+      newParamButton(component.exportSingleFile),
+      this.exportParentButton = newParamButton(component.exportParentFixture),
+      newParamButton(component.exportCompact),
+      this.exportPrecisionRow = newParamRow(component.exportPrecision,
+        new UIIntegerBox(COL_WIDTH, ROW_HEIGHT, component.exportPrecision)),
+      newParamButton(component.exportStrips),
+      newParamButton(component.exportSkipUnchanged),
+      newParamButton(component.exportRemoveStale),
       new UIButton(getContentWidth(), ROW_HEIGHT) {
         @Override
         protected void onToggle(boolean on) {
@@ -122,27 +241,127 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
       }
         .setMomentary(true)
         .setLabel("Export ALL to LXF")
-        .setBorderRounding(2)
+        .setBorderRounding(2),
+      this.labelExportProgress = (UILabel) newInfoLabel().setVisible(false),
+
+      newSectionLabel("EXPORT POINT CLOUD"),
+      newParamRow(component.pointCloudFormat, newDropMenu(component.pointCloudFormat, COL_WIDTH)),
+      new UIButton(getContentWidth(), ROW_HEIGHT) {
+        @Override
+        protected void onToggle(boolean on) {
+          if (on) {
+            component.exportPointCloud();
+          }
+        }
+      }
+        .setMomentary(true)
+        .setLabel("Export Point Cloud")
+        .setBorderRounding(2),
+
+      newSectionHeader("DIAGNOSTICS",
+        new UIButton(COL_WIDTH, ROW_HEIGHT) {
+          @Override
+          protected void onToggle(boolean on) {
+            diagnostics.setVisible(on);
+          }
+        }
+          .setActiveLabel("Hide")
+          .setInactiveLabel("Show")),
+      this.diagnostics = newDiagnostics(component.diagnostics)
       );
+    this.diagnostics.setVisible(false);
 
-    addListener(component.fileName, (p) -> {
-      this.labelFilename.setLabel(component.fileName.getString());
+    addLoopTask(deltaMs -> {
+      for (LabelRefresh labelRefresh : this.labelRefreshes) {
+        if (labelRefresh.dirty) {
+          labelRefresh.dirty = false;
+          labelRefresh.refresh.run();
+        }
+      }
     });
 
-    addListener(component.numPaths, (p) -> {
+    addListener(component.fileName, newLabelListener(() -> {
+      this.labelFilename.setLabel(component.fileName.getString());
+    }));
+
+    addListener(component.numPaths, newLabelListener(() -> {
       this.labelFoundPaths
         .setLabel("Imported " + component.numPaths.getValuei() + " paths")
         .setVisible(true);
-    });
+    }));
 
-    addListener(component.numForExport, (p) -> {
+    addListener(component.numForExport, newLabelListener(() -> {
       this.labelNumForExport.setLabel(component.numForExport.getValuei() + " fixtures ready for export");
-    }, true);
+    }), true);
 
-    addListener(component.totalPoints, p -> {
+    addListener(component.totalPoints, newLabelListener(() -> {
       this.labelTotalPoints.setLabel(component.totalPoints.getValuei() + " points");
+    }));
+
+    final OutputEstimator estimate = component.outputEstimate;
+    LXParameterListener estimateListener = newLabelListener(() -> {
+      this.labelControllers.setLabel(
+        estimate.numControllers.getValuei() + " controllers, max " +
+        estimate.maxUniversesUsed.getValuei() + " universes, " +
+        estimate.maxBytesPerFrame.getValuei() + " bytes/frame");
+      if (estimate.numControllers.getValuei() > 0) {
+        this.labelWorstController.setLabel(
+          String.format("Min %.1f fps (%s), %d overloaded",
+            estimate.minFps.getValue(),
+            estimate.worstController.getString(),
+            estimate.numOverloaded.getValuei()));
+      } else {
+        this.labelWorstController.setLabel("No outputs configured");
+      }
+    });
+    addListener(estimate.numControllers, estimateListener);
+    addListener(estimate.maxUniversesUsed, estimateListener);
+    addListener(estimate.maxBytesPerFrame, estimateListener);
+    addListener(estimate.minFps, estimateListener);
+    addListener(estimate.worstController, estimateListener);
+    addListener(estimate.numOverloaded, estimateListener, true);
+
+    addLoopTask(deltaMs -> {
+      final List<OutputEstimator.ControllerLoad> controllerLoads = estimate.getControllerLoads();
+      if (controllerLoads != this.controllerLoads) {
+        this.controllerLoads = controllerLoads;
+        refreshControllerLoads(controllerLoads);
+      }
     });
 
+    addListener(component.pathList.show, p -> {
+      this.pathList.setVisible(component.pathList.show.isOn());
+    }, true);
+
+    addListener(component.showPreview, p -> {
+      this.preview.setVisible(component.showPreview.isOn());
+    }, true);
+
+    addListener(component.stitchPaths, p -> {
+      this.stitchToleranceRow.setVisible(component.stitchPaths.isOn());
+    }, true);
+
+    LXParameterListener exportProgressListener = newLabelListener(() -> {
+      final int progress = component.exportProgress.getValuei();
+      final int total = component.exportTotal.getValuei();
+      this.labelExportProgress
+        .setLabel(component.exporting.isOn()
+          ? "Exporting " + progress + " of " + total + " files..."
+          : "Export finished, " + total + " files")
+        .setVisible(component.exporting.isOn() || total > 0);
+    });
+    addListener(component.exportProgress, exportProgressListener);
+    addListener(component.exportTotal, exportProgressListener);
+    addListener(component.exporting, exportProgressListener, true);
+
+    addListener(component.exportSingleFile, p -> {
+      this.exportParentButton.setVisible(!component.exportSingleFile.isOn());
+    }, true);
+
+    addListener(component.exportCompact, p -> {
+      this.exportPrecisionRow.setVisible(component.exportCompact.isOn());
+    }, true);
+
     addListener(component.syncPointMode.parameter, p -> {
       PathFixture.PointMode pointMode =
         ((EnumParameter<PathFixture.PointMode>)component.syncPointMode.parameter).getEnum();
@@ -154,6 +373,47 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
 
   }
 
+  /**
+   * Counts from the last import and timings for each stage
+   */
+  private UI2dContainer newDiagnostics(ImportDiagnostics diagnostics) {
+    final List<UI2dComponent> rows = new ArrayList<>();
+    final UILabel counts = newInfoLabel();
+    rows.add(counts);
+    LXParameterListener countsListener = newLabelListener(() -> {
+      counts.setLabel(
+        diagnostics.numPaths.getValuei() + " paths, " +
+        diagnostics.numVertices.getValuei() + " vertices, " +
+        diagnostics.numPoints.getValuei() + " points");
+    });
+    addListener(diagnostics.numPaths, countsListener);
+    addListener(diagnostics.numVertices, countsListener);
+    addListener(diagnostics.numPoints, countsListener, true);
+
+    for (StageTimer timer : diagnostics.timers) {
+      final UILabel label = newInfoLabel();
+      rows.add(label);
+      addListener(timer.count, newLabelListener(() -> {
+        label.setLabel(String.format("%s: %.1f ms (mean %.1f, max %.1f)",
+          timer.getLabel(),
+          timer.last.getValue(),
+          timer.mean.getValue(),
+          timer.max.getValue()));
+      }), true);
+    }
+    return UI2dContainer.newVerticalContainer(getContentWidth(), 2, rows.toArray(new UI2dComponent[0]));
+  }
+
+  /**
+   * Listener that schedules a label refresh for the next UI frame.  Share one listener
+   * across parameters that feed the same label so it is rebuilt once.
+   */
+  private LXParameterListener newLabelListener(Runnable refresh) {
+    final LabelRefresh labelRefresh = new LabelRefresh(refresh);
+    this.labelRefreshes.add(labelRefresh);
+    return p -> labelRefresh.dirty = true;
+  }
+
   private UI2dComponent newSectionLabel(String label) {
     return new UILabel(getContentWidth(),  label)
       .setFont(UI.get().theme.getLabelFont())
@@ -161,6 +421,48 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
       .setTopMargin(SECTION_SPACING);
   }
 
+  /**
+   * Section label with a control on the right, such as a Show/Hide button
+   */
+  private UI2dComponent newSectionHeader(String label, UI2dComponent control) {
+    return newHorizontalContainer(ROW_HEIGHT, 2,
+      new UILabel(getContentWidth() - COL_WIDTH, label)
+        .setFont(UI.get().theme.getLabelFont())
+        .setTextAlignment(VGraphics.Align.LEFT, VGraphics.Align.MIDDLE),
+      control
+    )
+      .setTopMargin(SECTION_SPACING);
+  }
+
+  private UI2dContainer newControllerLoads() {
+    for (int i = 0; i < CONTROLLER_ROWS; i++) {
+      this.labelControllerLoads.add((UILabel) newInfoLabel().setVisible(false));
+    }
+    return UI2dContainer.newVerticalContainer(getContentWidth(), 0,
+      this.labelControllerLoads.toArray(new UI2dComponent[0]));
+  }
+
+  private void refreshControllerLoads(List<OutputEstimator.ControllerLoad> controllerLoads) {
+    final boolean truncated = controllerLoads.size() > CONTROLLER_ROWS;
+    for (int i = 0; i < CONTROLLER_ROWS; i++) {
+      final UILabel label = this.labelControllerLoads.get(i);
+      if (truncated && i == CONTROLLER_ROWS - 1) {
+        label.setLabel("...and " + (controllerLoads.size() - i) + " more controllers").setVisible(true);
+      } else if (i < controllerLoads.size()) {
+        final OutputEstimator.ControllerLoad load = controllerLoads.get(i);
+        label.setLabel(String.format("%s%s: %d fixtures, %d universes, %d bytes, %.1f fps",
+          load.overloaded() ? "! " : "",
+          load.host(),
+          load.numFixtures(),
+          load.numUniverses(),
+          load.bytesPerFrame(),
+          load.fps())).setVisible(true);
+      } else {
+        label.setVisible(false);
+      }
+    }
+  }
+
   private UILabel newInfoLabel() {
     return (UILabel) new UILabel(getContentWidth(),  "")
       .setFont(UI.get().theme.getControlFont())
@@ -180,6 +482,16 @@ public class UISvgImport extends UICollapsibleSection implements UIControls {
     );
   }
 
+  private UI2dComponent newParamRow(LXParameter p, UI2dComponent control) {
+    return newHorizontalContainer(ROW_HEIGHT, 2,
+      new UILabel(getContentWidth() - COL_WIDTH, p.getLabel())
+        .setFont(UI.get().theme.getControlFont())
+        .setTextAlignment(VGraphics.Align.LEFT, VGraphics.Align.MIDDLE)
+        .setDescription(p.getDescription()),
+      control
+    );
+  }
+
   private UI2dComponent newSyncParameterRow(UI ui, SyncParameter syncParameter) {
     UI2dComponent controlComponent;
     if (syncParameter.parameter instanceof EnumParameter) {